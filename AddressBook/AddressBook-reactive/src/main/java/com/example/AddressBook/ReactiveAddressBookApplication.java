@@ -0,0 +1,13 @@
+package com.example.AddressBook;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveAddressBookApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveAddressBookApplication.class, args);
+	}
+
+}
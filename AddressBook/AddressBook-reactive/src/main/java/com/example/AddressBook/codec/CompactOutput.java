@@ -0,0 +1,109 @@
+package com.example.AddressBook.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Growable buffer with the primitives of the compact format: unsigned varints, zig-zag
+ * longs, length-prefixed UTF-8 strings and length-prefixed records.
+ */
+public final class CompactOutput {
+
+    private byte[] buffer;
+    private int size;
+
+    public CompactOutput(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void writeByte(int value) {
+        ensure(1);
+        buffer[size++] = (byte) value;
+    }
+
+    // Unsigned LEB128: 7 bits per byte, so small numbers take one byte
+    public void writeVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeZigZagLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    public void writeInstant(Instant value) {
+        writeZigZagLong(value.getEpochSecond());
+        writeVarLong(value.getNano());
+    }
+
+    public void writeBytes(byte[] bytes, int offset, int length) {
+        ensure(length);
+        System.arraycopy(bytes, offset, buffer, size, length);
+        size += length;
+    }
+
+    // ✅ Records are length-prefixed so a reader can skip fields that a newer schema version appended
+    public int beginRecord() {
+        writeByte(0);  // one-byte length placeholder, widened in endRecord if needed
+        return size;
+    }
+
+    public void endRecord(int start) {
+        int length = size - start;
+        int lengthBytes = varLongSize(length);
+        if (lengthBytes > 1) {
+            ensure(lengthBytes - 1);
+            System.arraycopy(buffer, start, buffer, start + lengthBytes - 1, length);
+            size += lengthBytes - 1;
+        }
+        int position = start - 1;
+        long value = length;
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position] = (byte) value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    void setByte(int position, int value) {
+        buffer[position] = (byte) value;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private static int varLongSize(long value) {
+        int bytes = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.AddressBook.codec;
+
+import com.example.AddressBook.messaging.ContactChangedEvent;
+import com.example.AddressBook.model.AddressBook;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact schemas for the cached contacts and the AMQP event payloads.
+ *
+ * Each record starts with a bitmask of its non-null fields, so absent fields cost nothing.
+ * Copy of the servlet app's schemas minus the user events, which this app never sees. Type ids
+ * and field bits are the wire format both apps share: never reuse or reorder them, only append.
+ */
+public final class ContactSchemas {
+
+    public static final int CONTACT_TYPE = 1;
+    public static final int CONTACT_LIST_TYPE = 2;
+    public static final int CONTACT_EVENT_TYPE = 3;
+    // 4 is UserRegisteredEvent in the servlet app
+
+    public static final TypeCodec<AddressBook> CONTACT = new TypeCodec<>() {
+        @Override public int typeId() { return CONTACT_TYPE; }
+        @Override public int version() { return 1; }
+        @Override public boolean accepts(Object value) { return value instanceof AddressBook; }
+        @Override public void write(AddressBook contact, CompactOutput out) { writeContact(contact, out); }
+        @Override public AddressBook read(CompactInput in, int version) { return readContact(in); }
+    };
+
+    // ✅ Contact lists; elements are framed individually so each can grow new fields
+    public static final TypeCodec<List<AddressBook>> CONTACT_LIST = new TypeCodec<>() {
+        @Override public int typeId() { return CONTACT_LIST_TYPE; }
+        @Override public int version() { return 1; }
+
+        @Override
+        public boolean accepts(Object value) {
+            if (!(value instanceof List<?> list)) {
+                return false;
+            }
+            for (Object element : list) {
+                if (!(element instanceof AddressBook)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void write(List<AddressBook> contacts, CompactOutput out) {
+            out.writeVarLong(contacts.size());
+            for (AddressBook contact : contacts) {
+                writeContact(contact, out);
+            }
+        }
+
+        @Override
+        public List<AddressBook> read(CompactInput in, int version) {
+            long size = in.readVarLong();
+            List<AddressBook> contacts = new ArrayList<>((int) Math.min(size, 1024));
+            for (long i = 0; i < size; i++) {
+                contacts.add(readContact(in));
+            }
+            return contacts;
+        }
+    };
+
+    public static final TypeCodec<ContactChangedEvent> CONTACT_EVENT = new TypeCodec<>() {
+        @Override public int typeId() { return CONTACT_EVENT_TYPE; }
+        @Override public int version() { return 1; }
+        @Override public boolean accepts(Object value) { return value instanceof ContactChangedEvent; }
+
+        @Override
+        public void write(ContactChangedEvent event, CompactOutput out) {
+            int record = out.beginRecord();
+            out.writeVarLong(mask(event.getType(), event.getContactId(), event.getOwnerId(), event.getName(),
+                    event.getEmail(), event.getPhone(), event.getOccurredAt()));
+            if (event.getType() != null) out.writeVarLong(event.getType().ordinal());  // ChangeType constants are append-only
+            if (event.getContactId() != null) out.writeZigZagLong(event.getContactId());
+            if (event.getOwnerId() != null) out.writeZigZagLong(event.getOwnerId());
+            if (event.getName() != null) out.writeString(event.getName());
+            if (event.getEmail() != null) out.writeString(event.getEmail());
+            if (event.getPhone() != null) out.writeString(event.getPhone());
+            if (event.getOccurredAt() != null) out.writeInstant(event.getOccurredAt());
+            out.writeZigZagLong(event.getCount());
+            out.endRecord(record);
+        }
+
+        @Override
+        public ContactChangedEvent read(CompactInput in, int version) {
+            CompactInput record = in.readRecord();
+            long mask = record.readVarLong();
+            ContactChangedEvent event = new ContactChangedEvent();
+            if ((mask & 1) != 0) event.setType(changeType(record.readVarLong()));
+            if ((mask & 2) != 0) event.setContactId(record.readZigZagLong());
+            if ((mask & 4) != 0) event.setOwnerId(record.readZigZagLong());
+            if ((mask & 8) != 0) event.setName(record.readString());
+            if ((mask & 16) != 0) event.setEmail(record.readString());
+            if ((mask & 32) != 0) event.setPhone(record.readString());
+            if ((mask & 64) != 0) event.setOccurredAt(record.readInstant());
+            event.setCount((int) record.readZigZagLong());
+            return event;
+        }
+    };
+
+    public static final List<TypeCodec<?>> ALL = List.of(CONTACT, CONTACT_LIST, CONTACT_EVENT);
+
+    private ContactSchemas() {
+    }
+
+    static void writeContact(AddressBook contact, CompactOutput out) {
+        int record = out.beginRecord();
+        out.writeVarLong(mask(contact.getId(), contact.getOwnerId(), contact.getName(), contact.getEmail(),
+                contact.getPhone(), contact.getVersion()));
+        if (contact.getId() != null) out.writeZigZagLong(contact.getId());
+        if (contact.getOwnerId() != null) out.writeZigZagLong(contact.getOwnerId());
+        if (contact.getName() != null) out.writeString(contact.getName());
+        if (contact.getEmail() != null) out.writeString(contact.getEmail());
+        if (contact.getPhone() != null) out.writeString(contact.getPhone());
+        if (contact.getVersion() != null) out.writeZigZagLong(contact.getVersion());
+        out.endRecord(record);
+    }
+
+    static AddressBook readContact(CompactInput in) {
+        CompactInput record = in.readRecord();
+        long mask = record.readVarLong();
+        AddressBook contact = new AddressBook();
+        if ((mask & 1) != 0) contact.setId(record.readZigZagLong());
+        if ((mask & 2) != 0) contact.setOwnerId(record.readZigZagLong());
+        if ((mask & 4) != 0) contact.setName(record.readString());
+        if ((mask & 8) != 0) contact.setEmail(record.readString());
+        if ((mask & 16) != 0) contact.setPhone(record.readString());
+        if ((mask & 32) != 0) contact.setVersion(record.readZigZagLong());
+        return contact;
+    }
+
+    // Bit i is set when field i is present
+    private static long mask(Object... fields) {
+        long mask = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    private static ContactChangedEvent.ChangeType changeType(long ordinal) {
+        ContactChangedEvent.ChangeType[] types = ContactChangedEvent.ChangeType.values();
+        if (ordinal < 0 || ordinal >= types.length) {
+            throw new IllegalArgumentException("Unknown contact change type " + ordinal);
+        }
+        return types[(int) ordinal];
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.AddressBook.codec;
+
+/**
+ * Schema of one type in the compact format.
+ *
+ * The type id and current version are written in every value's header. Versions only ever
+ * append fields, so {@link #read} is given the writer's version: older values leave the new
+ * fields at their defaults, and fields from newer writers are skipped with the record.
+ */
+public interface TypeCodec<T> {
+
+    int typeId();
+
+    int version();
+
+    boolean accepts(Object value);
+
+    void write(T value, CompactOutput out);
+
+    T read(CompactInput in, int version);
+}
@@ -0,0 +1,31 @@
+package com.example.AddressBook.config;
+
+import com.rabbitmq.client.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.rabbitmq.RabbitFlux;
+import reactor.rabbitmq.Sender;
+import reactor.rabbitmq.SenderOptions;
+
+@Configuration
+public class RabbitSenderConfig {
+
+    public static final String EXCHANGE_NAME = "addressbook.exchange";
+    public static final String CONTACT_ROUTING_KEY = "addressbook.contact.routingkey";
+
+    // ✅ Non-blocking publisher; the exchange and queues are declared by the servlet app
+    @Bean(destroyMethod = "close")
+    public Sender rabbitSender(@Value("${spring.rabbitmq.host:localhost}") String host,
+                               @Value("${spring.rabbitmq.port:5672}") int port,
+                               @Value("${spring.rabbitmq.username:guest}") String username,
+                               @Value("${spring.rabbitmq.password:guest}") String password) {
+        ConnectionFactory connectionFactory = new ConnectionFactory();
+        connectionFactory.setHost(host);
+        connectionFactory.setPort(port);
+        connectionFactory.setUsername(username);
+        connectionFactory.setPassword(password);
+        connectionFactory.useNio();
+        return RabbitFlux.createSender(new SenderOptions().connectionFactory(connectionFactory));
+    }
+}
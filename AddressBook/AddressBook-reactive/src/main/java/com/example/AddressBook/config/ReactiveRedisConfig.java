@@ -0,0 +1,34 @@
+package com.example.AddressBook.config;
+
+import com.example.AddressBook.codec.CompactCodec;
+import com.example.AddressBook.codec.CompactRedisSerializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+@Configuration
+public class ReactiveRedisConfig {
+
+    // ✅ Shared with the servlet app's RedisCacheManager and TwoLevelCacheManager
+    public static final String CONTACTS_CACHE_PREFIX = "contacts::";
+    public static final String CACHE_INVALIDATION_CHANNEL = "addressbook.cache.invalidation";
+
+    // ✅ Same owner-namespaced keys as the servlet app's RedisConfig (without the "contacts::" prefix)
+    public static String contactKey(Long ownerId, Long id) {
+        return ownerId + ":" + id;
+    }
+
+    // ✅ Same key/value encoding as the servlet app's cache, so entries are interchangeable
+    @Bean
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(ReactiveRedisConnectionFactory connectionFactory,
+                                                                       CompactCodec codec) {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(new CompactRedisSerializer(codec))
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.AddressBook.controller;
+
+import com.example.AddressBook.dto.AddressBookDTO;
+import com.example.AddressBook.dto.ContactPageDTO;
+import com.example.AddressBook.model.AddressBook;
+import com.example.AddressBook.security.AuthenticatedUser;
+import com.example.AddressBook.service.ContactService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// ✅ Same paths, payloads and ETags as the servlet app's AddressBookController (CRUD, paging, NDJSON stream)
+@RestController
+@RequestMapping("/api/contacts")
+@PreAuthorize("hasAuthority('ROLE_USER')")
+public class ContactController {
+
+    private final ContactService contactService;
+
+    public ContactController(ContactService contactService) {
+        this.contactService = contactService;
+    }
+
+    // ✅ Keyset page: pass nextCursor back as 'after'; 304 if the page is unchanged
+    @GetMapping
+    public Mono<ContactPageDTO> getAllContacts(@AuthenticationPrincipal AuthenticatedUser user,
+                                               @RequestParam(required = false) Long after,
+                                               @RequestParam(required = false) Integer limit,
+                                               ServerWebExchange exchange) {
+        return contactService.getContactsPage(user.getId(), after, limit)
+                .filter(page -> !exchange.checkNotModified(pageETag(page)));
+    }
+
+    // ✅ One JSON object per line, written only as fast as the client reads (backpressure end to end)
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AddressBook> streamAllContacts(@AuthenticationPrincipal AuthenticatedUser user) {
+        return contactService.streamAllContacts(user.getId());
+    }
+
+    // ✅ 304 when If-None-Match still holds the contact's version
+    @GetMapping("/{id}")
+    public Mono<AddressBook> getContactById(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id,
+                                            ServerWebExchange exchange) {
+        return contactService.getContactById(user.getId(), id)
+                .filter(contact -> contact.getVersion() == null || !exchange.checkNotModified(contactETag(contact)));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<AddressBook>> addContact(@AuthenticationPrincipal AuthenticatedUser user,
+                                                        @RequestBody AddressBookDTO contactDTO) {
+        AddressBook contact = new AddressBook();
+        contact.setName(contactDTO.getName());
+        contact.setPhone(contactDTO.getPhone());
+        contact.setEmail(contactDTO.getEmail());
+        return contactService.addContact(user.getId(), contact).map(ContactController::withETag);
+    }
+
+    // ✅ 412 if If-Match (or the version in the body) is no longer current
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<AddressBook>> updateContact(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                           @RequestBody AddressBook contact) {
+        if (ifMatch != null) {
+            contact.setVersion(ifMatchVersion(ifMatch));
+        }
+        return contactService.updateContact(user.getId(), id, contact).map(ContactController::withETag);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteContact(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return contactService.deleteContact(user.getId(), id, ifMatch == null ? null : ifMatchVersion(ifMatch));
+    }
+
+    private static ResponseEntity<AddressBook> withETag(AddressBook contact) {
+        return ResponseEntity.ok().eTag(contactETag(contact)).body(contact);
+    }
+
+    // Must match the servlet app's ETags, so a client can switch between the two
+    private static String contactETag(AddressBook contact) {
+        return "\"" + contact.getVersion() + "\"";
+    }
+
+    private static String pageETag(ContactPageDTO page) {
+        long hash = 0xcbf29ce484222325L;
+        for (AddressBook contact : page.getContacts()) {
+            hash = (hash ^ contact.getId()) * 0x100000001b3L;
+            hash = (hash ^ (contact.getVersion() == null ? -1L : contact.getVersion())) * 0x100000001b3L;
+        }
+        return "\"p" + Long.toHexString(hash) + "\"";
+    }
+
+    // "*" only requires the contact to exist (null = no version check); anything but one strong contact ETag can never match
+    private static Long ifMatchVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // falls through to 412
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match the current contact!");
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.AddressBook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AddressBookDTO {
+    private String name;
+    private String email;
+    private String phone;
+}
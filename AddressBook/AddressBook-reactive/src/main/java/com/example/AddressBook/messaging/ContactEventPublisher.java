@@ -0,0 +1,68 @@
+package com.example.AddressBook.messaging;
+
+import com.example.AddressBook.codec.CompactCodec;
+import com.rabbitmq.client.AMQP;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.rabbitmq.OutboundMessage;
+import reactor.rabbitmq.Sender;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+
+import static com.example.AddressBook.config.RabbitSenderConfig.*;
+
+/**
+ * Publishes contact change events to the same exchange as the servlet app. The body is in the
+ * compact format under {@link CompactCodec#CONTENT_TYPE}, which the servlet app's message
+ * converter reads. With {@code codec.compact.enabled=false} it is a Java-serialized
+ * {@link ContactChangedEvent}, as consumers that predate the compact format expect.
+ */
+@Service
+public class ContactEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactEventPublisher.class);
+    private static final AMQP.BasicProperties COMPACT_PROPERTIES = new AMQP.BasicProperties.Builder()
+            .contentType(CompactCodec.CONTENT_TYPE)
+            .deliveryMode(2)
+            .build();
+    private static final AMQP.BasicProperties JAVA_PROPERTIES = new AMQP.BasicProperties.Builder()
+            .contentType("application/x-java-serialized-object")
+            .deliveryMode(2)
+            .build();
+
+    private final Sender sender;
+    private final CompactCodec codec;
+
+    public ContactEventPublisher(Sender sender, CompactCodec codec) {
+        this.sender = sender;
+        this.codec = codec;
+    }
+
+    // ✅ Completes once the broker has the message; failures are logged, never propagated to the request
+    public Mono<Void> publish(ContactChangedEvent event) {
+        return sender.send(Mono.fromCallable(() ->
+                        codec.supports(event)
+                                ? new OutboundMessage(EXCHANGE_NAME, CONTACT_ROUTING_KEY, COMPACT_PROPERTIES, codec.encode(event))
+                                : new OutboundMessage(EXCHANGE_NAME, CONTACT_ROUTING_KEY, JAVA_PROPERTIES, serialize(event))))
+                .onErrorResume(e -> {
+                    logger.error("Failed to publish {} event for contact {} - {}", event.getType(), event.getContactId(),
+                            e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static byte[] serialize(ContactChangedEvent event) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
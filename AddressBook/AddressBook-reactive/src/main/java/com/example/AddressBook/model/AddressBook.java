@@ -0,0 +1,32 @@
+package com.example.AddressBook.model;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.io.Serializable;
+
+// ✅ Same table and class name as the servlet app's JPA entity, so both apps read each other's cache entries
+@Table("address_book")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddressBook implements Serializable {
+    @Id
+    private Long id;
+    @Column("owner_id")
+    private Long ownerId;
+    @NotBlank
+    private String name;
+    @NotBlank
+    private String email;
+
+    @NotBlank
+    private String phone;
+
+    @Version
+    private Long version;  // same column the servlet app's JPA @Version bumps
+}
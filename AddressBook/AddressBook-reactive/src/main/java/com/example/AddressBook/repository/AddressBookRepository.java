@@ -0,0 +1,21 @@
+package com.example.AddressBook.repository;
+
+import com.example.AddressBook.model.AddressBook;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface AddressBookRepository extends R2dbcRepository<AddressBook, Long> {
+
+    // ✅ Keyset page of one owner's contacts: seeks on the (owner_id, id) index instead of OFFSET
+    @Query("SELECT * FROM address_book WHERE owner_id = :ownerId AND id > :after ORDER BY id LIMIT :limit")
+    Flux<AddressBook> findPage(long ownerId, long after, int limit);
+
+    // ✅ All of one owner's contacts in id order; rows are pulled from the driver only as fast as the subscriber requests them
+    @Query("SELECT * FROM address_book WHERE owner_id = :ownerId ORDER BY id")
+    Flux<AddressBook> streamAll(long ownerId);
+
+    Mono<AddressBook> findByIdAndOwnerId(Long id, Long ownerId);
+
+}
@@ -0,0 +1,40 @@
+package com.example.AddressBook.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+// ✅ Reactive equivalent of the servlet app's JwtAuthFilter: bearer token in, authenticated principal out
+@Component
+public class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final JwtVerifier jwtVerifier;
+    private final TokenPrincipalService tokenPrincipalService;
+    private final TokenRevocationChecker tokenRevocationChecker;
+
+    public JwtReactiveAuthenticationManager(JwtVerifier jwtVerifier, TokenPrincipalService tokenPrincipalService,
+                                            TokenRevocationChecker tokenRevocationChecker) {
+        this.jwtVerifier = jwtVerifier;
+        this.tokenPrincipalService = tokenPrincipalService;
+        this.tokenRevocationChecker = tokenRevocationChecker;
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        Claims claims = jwtVerifier.parseClaims((String) authentication.getCredentials());
+        if (claims == null || claims.getSubject() == null) {
+            return Mono.error(new BadCredentialsException("Invalid or expired token"));
+        }
+        return tokenRevocationChecker.isRevoked(claims)
+                .flatMap(revoked -> revoked
+                        ? Mono.<UserDetails>error(new BadCredentialsException("Token has been revoked"))
+                        : tokenPrincipalService.loadUserForToken(claims.getSubject()))
+                .switchIfEmpty(Mono.error(new BadCredentialsException("Invalid or expired token")))
+                .map(user -> new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
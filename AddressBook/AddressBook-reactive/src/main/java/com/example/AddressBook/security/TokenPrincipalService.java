@@ -0,0 +1,45 @@
+package com.example.AddressBook.security;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Password-less principal for a verified token, looked up in the servlet app's users table
+ * and cached briefly. Concurrent lookups for the same user share one query.
+ */
+@Service
+public class TokenPrincipalService {
+
+    private final DatabaseClient databaseClient;
+    private final AsyncCache<String, UserDetails> principals;
+
+    public TokenPrincipalService(DatabaseClient databaseClient,
+                                 @Value("${auth.user-cache.ttl:PT30S}") Duration userCacheTtl,
+                                 @Value("${auth.user-cache.max-size:10000}") long userCacheMaxSize) {
+        this.databaseClient = databaseClient;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(userCacheMaxSize)
+                .expireAfterWrite(userCacheTtl)
+                .buildAsync();
+    }
+
+    // ✅ Empty if the user no longer exists
+    public Mono<UserDetails> loadUserForToken(String username) {
+        return Mono.fromFuture(() -> principals.get(username, (name, executor) -> databaseClient
+                        .sql("SELECT id, username, role FROM users WHERE username = :username")
+                        .bind("username", name)
+                        .map((row, metadata) -> (UserDetails) new AuthenticatedUser(row.get("id", Long.class),
+                                row.get("username", String.class),
+                                AuthorityUtils.createAuthorityList(row.get("role", String.class))))
+                        .one()
+                        .toFuture()));  // a null result completes empty and is not cached
+    }
+}
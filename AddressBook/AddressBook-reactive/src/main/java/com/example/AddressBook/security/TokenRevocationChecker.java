@@ -0,0 +1,124 @@
+package com.example.AddressBook.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Read side of the servlet app's TokenRevocationService: same Redis keys, channel and Bloom
+ * filter scheme. A filter miss answers without touching Redis; hits are confirmed with one
+ * non-blocking lookup.
+ */
+@Component
+public class TokenRevocationChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationChecker.class);
+    static final String REVOCATION_CHANNEL = "auth.revocations";
+    static final String KEY_PREFIX = "auth:revoked:";
+    static final String JTI = "jti:";
+    static final String USER = "user:";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Duration rebuildInterval;
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+    private volatile boolean loaded;
+
+    public TokenRevocationChecker(ReactiveStringRedisTemplate redisTemplate,
+                                  @Value("${auth.revocation.expected-entries:1000000}") long expectedRevocations,
+                                  @Value("${auth.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  @Value("${auth.revocation.rebuild-interval-ms:3600000}") long rebuildIntervalMs) {
+        this.redisTemplate = redisTemplate;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildInterval = Duration.ofMillis(rebuildIntervalMs);
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    @PostConstruct
+    public void start() {
+        subscriptions.add(redisTemplate.listenToChannel(REVOCATION_CHANNEL)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(message -> addToFilter(message.getMessage())));
+        subscriptions.add(Flux.interval(Duration.ZERO, rebuildInterval)
+                .concatMap(tick -> rebuild())
+                .subscribe());
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+    }
+
+    // ✅ Emits true if the token (or every token of its user issued before a cut-off) is revoked
+    public Mono<Boolean> isRevoked(Claims claims) {
+        String jti = claims.getId();
+        String username = claims.getSubject();
+        boolean jtiCandidate = jti != null && (!loaded || filter.mightContain(JTI + jti));
+        boolean userCandidate = username != null && (!loaded || filter.mightContain(USER + username));
+        if (!jtiCandidate && !userCandidate) {
+            return Mono.just(false);
+        }
+        Mono<Boolean> byJti = jtiCandidate ? redisTemplate.hasKey(KEY_PREFIX + JTI + jti) : Mono.just(false);
+        Mono<Boolean> byUser = userCandidate
+                ? redisTemplate.opsForValue().get(KEY_PREFIX + USER + username)
+                        .map(cutoff -> {
+                            Date issuedAt = claims.getIssuedAt();
+                            return issuedAt == null || issuedAt.getTime() < Long.parseLong(cutoff);
+                        })
+                        .defaultIfEmpty(false)
+                : Mono.just(false);
+        return byJti.flatMap(revoked -> revoked ? Mono.just(true) : byUser)
+                // Only reached for filter hits; refuse rather than admit a possibly revoked token
+                .onErrorResume(e -> {
+                    logger.warn("Revocation check failed, rejecting token - {}", e.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    private void addToFilter(String entry) {
+        BloomFilter next = rebuilding;
+        filter.add(entry);
+        if (next != null) {
+            next.add(entry);
+        }
+    }
+
+    Mono<Void> rebuild() {
+        return Mono.defer(() -> {
+            BloomFilter next = new BloomFilter(expectedRevocations, falsePositiveRate);
+            rebuilding = next;
+            return redisTemplate.scan(ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build())
+                    .doOnNext(key -> next.add(key.substring(KEY_PREFIX.length())))
+                    .then(Mono.fromRunnable(() -> {
+                        filter = next;
+                        rebuilding = null;
+                        loaded = true;
+                    }))
+                    .onErrorResume(e -> {
+                        rebuilding = null;
+                        logger.warn("Revocation filter rebuild failed, keeping the current filter - {}", e.getMessage());
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+    }
+}
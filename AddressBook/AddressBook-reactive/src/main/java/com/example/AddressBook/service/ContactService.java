@@ -0,0 +1,167 @@
+package com.example.AddressBook.service;
+
+import com.example.AddressBook.dto.ContactPageDTO;
+import com.example.AddressBook.messaging.ContactChangedEvent;
+import com.example.AddressBook.messaging.ContactEventPublisher;
+import com.example.AddressBook.model.AddressBook;
+import com.example.AddressBook.repository.AddressBookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static com.example.AddressBook.config.ReactiveRedisConfig.*;
+
+/**
+ * Non-blocking counterpart of the servlet app's AddressBookService.
+ *
+ * Every operation is scoped to the caller's user id. Reads go cache-aside through the same
+ * Redis entries ({@code contacts::<ownerId>:<id>}) the servlet app's cache uses. Writes refresh or delete those entries and publish
+ * on the invalidation channel so servlet nodes also drop their local (L1) copies.
+ */
+@Service
+public class ContactService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactService.class);
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_PREFETCH = 256;
+
+    private final AddressBookRepository addressBookRepository;
+    private final ReactiveRedisTemplate<String, Object> redisTemplate;
+    private final ReactiveStringRedisTemplate stringRedisTemplate;
+    private final ContactEventPublisher contactEventPublisher;
+    private final Duration entryTtl;
+    private final String nodeId = "reactive-" + UUID.randomUUID();
+
+    public ContactService(AddressBookRepository addressBookRepository, ReactiveRedisTemplate<String, Object> redisTemplate,
+                          ReactiveStringRedisTemplate stringRedisTemplate, ContactEventPublisher contactEventPublisher,
+                          @Value("${cache.redis.entry-ttl:PT30M}") Duration entryTtl) {
+        this.addressBookRepository = addressBookRepository;
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.contactEventPublisher = contactEventPublisher;
+        this.entryTtl = entryTtl;
+    }
+
+    // ✅ Keyset page of the owner's contacts ordered by id
+    public Mono<ContactPageDTO> getContactsPage(Long ownerId, Long after, Integer limit) {
+        long cursor = after == null ? 0L : after;
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return addressBookRepository.findPage(ownerId, cursor, size)
+                .collectList()
+                .map(contacts -> new ContactPageDTO(contacts,
+                        contacts.size() == size ? contacts.get(contacts.size() - 1).getId() : null));
+    }
+
+    // ✅ Every contact of the owner in id order, fetched in bounded batches as the client consumes them
+    public Flux<AddressBook> streamAllContacts(Long ownerId) {
+        return addressBookRepository.streamAll(ownerId).limitRate(STREAM_PREFETCH);
+    }
+
+    // ✅ Another user's contact is reported as not found
+    public Mono<AddressBook> getContactById(Long ownerId, Long id) {
+        return redisTemplate.opsForValue().get(CONTACTS_CACHE_PREFIX + contactKey(ownerId, id))
+                .cast(AddressBook.class)
+                .onErrorResume(e -> {
+                    logger.warn("Cache read failed for contact {} - {}", id, e.getMessage());
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.defer(() -> addressBookRepository.findByIdAndOwnerId(id, ownerId)
+                        .switchIfEmpty(Mono.error(new RuntimeException("Contact not found with id: " + id)))
+                        .flatMap(contact -> cacheFill(contact).thenReturn(contact))));
+    }
+
+    public Mono<AddressBook> addContact(Long ownerId, AddressBook contact) {
+        if (contact.getName() == null || contact.getPhone() == null) {
+            return Mono.error(new RuntimeException("Name and Phone are required!"));
+        }
+        contact.setId(null);
+        contact.setOwnerId(ownerId);
+        return addressBookRepository.save(contact)
+                .flatMap(saved -> cachePut(saved)
+                        .then(contactEventPublisher.publish(ContactChangedEvent.of(ContactChangedEvent.ChangeType.CREATED, saved)))
+                        .thenReturn(saved));
+    }
+
+    // ✅ Same semantics as the servlet app: name and phone are updated, email is kept, and a non-null
+    // version on the update must still be current (412 otherwise)
+    public Mono<AddressBook> updateContact(Long ownerId, Long id, AddressBook updatedContact) {
+        return addressBookRepository.findByIdAndOwnerId(id, ownerId)
+                .switchIfEmpty(Mono.error(new RuntimeException("Contact not found with id: " + id)))
+                .flatMap(existing -> checkVersion(existing, updatedContact.getVersion()))
+                .flatMap(existing -> {
+                    existing.setName(updatedContact.getName());
+                    existing.setPhone(updatedContact.getPhone());
+                    return addressBookRepository.save(existing);
+                })
+                .onErrorMap(OptimisticLockingFailureException.class, e -> modifiedConcurrently(id))
+                .flatMap(saved -> cachePut(saved)
+                        .then(contactEventPublisher.publish(ContactChangedEvent.of(ContactChangedEvent.ChangeType.UPDATED, saved)))
+                        .thenReturn(saved));
+    }
+
+    public Mono<Void> deleteContact(Long ownerId, Long id, Long expectedVersion) {
+        return addressBookRepository.findByIdAndOwnerId(id, ownerId)
+                .switchIfEmpty(Mono.error(new RuntimeException("Contact not found with id: " + id)))
+                .flatMap(existing -> checkVersion(existing, expectedVersion))
+                .flatMap(addressBookRepository::delete)  // version-checked DELETE
+                .onErrorMap(OptimisticLockingFailureException.class, e -> modifiedConcurrently(id))
+                .then(Mono.defer(() -> evict(contactKey(ownerId, id))))
+                .then(Mono.defer(() -> contactEventPublisher.publish(ContactChangedEvent.deleted(ownerId, id))));
+    }
+
+    private static Mono<AddressBook> checkVersion(AddressBook contact, Long expectedVersion) {
+        return expectedVersion == null || expectedVersion.equals(contact.getVersion())
+                ? Mono.just(contact) : Mono.error(modifiedConcurrently(contact.getId()));
+    }
+
+    private static ResponseStatusException modifiedConcurrently(Long id) {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                "Contact " + id + " was modified by another request, reload it and retry!");
+    }
+
+    // ✅ Read-miss fill: only sets the entry if nobody wrote it since our miss, so a slow read can't
+    // overwrite a newer value from a concurrent update. Nothing changed for other nodes, so no broadcast
+    private Mono<Void> cacheFill(AddressBook contact) {
+        String key = contactKey(contact.getOwnerId(), contact.getId());
+        return redisTemplate.opsForValue().setIfAbsent(CONTACTS_CACHE_PREFIX + key, contact, entryTtl)
+                .then()
+                .onErrorResume(e -> cacheFailure(key, e));
+    }
+
+    private Mono<Void> cachePut(AddressBook contact) {
+        String key = contactKey(contact.getOwnerId(), contact.getId());
+        return redisTemplate.opsForValue().set(CONTACTS_CACHE_PREFIX + key, contact, entryTtl)
+                .then(invalidateLocalCopies(key))
+                .onErrorResume(e -> cacheFailure(key, e));
+    }
+
+    private Mono<Void> evict(String key) {
+        return redisTemplate.delete(CONTACTS_CACHE_PREFIX + key)
+                .then(invalidateLocalCopies(key))
+                .onErrorResume(e -> cacheFailure(key, e));
+    }
+
+    // Message format understood by the servlet app's TwoLevelCacheManager: <nodeId>|<cacheName>|<key>
+    // (sent as a plain string - the JSON value serializer would quote it)
+    private Mono<Void> invalidateLocalCopies(String key) {
+        return stringRedisTemplate.convertAndSend(CACHE_INVALIDATION_CHANNEL, nodeId + "|contacts|" + key).then();
+    }
+
+    // Servlet nodes' L1 entries still expire via their local TTL
+    private Mono<Void> cacheFailure(String key, Throwable e) {
+        logger.warn("Cache update failed for contacts::{} - {}", key, e.getMessage());
+        return Mono.empty();
+    }
+}
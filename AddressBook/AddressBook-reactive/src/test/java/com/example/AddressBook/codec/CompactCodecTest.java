@@ -0,0 +1,73 @@
+package com.example.AddressBook.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.AddressBook.messaging.ContactChangedEvent;
+import com.example.AddressBook.model.AddressBook;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+// The golden bytes are the wire contract with the servlet app's CompactCodec, whose test pins the same
+// values: a change here without the same change there breaks cache entries and events between the apps
+class CompactCodecTest {
+
+    static final String CONTACT_BYTES =
+            "c70101002d3f540e084a6f686e20446f65146a6f686e2e646f65406578616d706c652e636f6d0a3132333435363738393006";
+    static final String CONTACT_EVENT_BYTES =
+            "c7030100377f01540e084a6f686e20446f65146a6f686e2e646f65406578616d706c652e636f6d0a31323334353637383930"
+                    + "80c49fd50c959aef3a02";
+    static final String IMPORTED_EVENT_BYTES = "c70301000b45030e80c49fd50c00f403";
+
+    private final CompactCodec codec = new CompactCodec(true, 1024);
+
+    // ✅ Test: Contacts and events are written byte for byte as the servlet app writes them
+    @Test
+    void testGoldenBytes() {
+        assertEquals(CONTACT_BYTES, HexFormat.of().formatHex(codec.encode(contact())));
+        assertEquals(CONTACT_EVENT_BYTES, HexFormat.of().formatHex(codec.encode(updated())));
+        assertEquals(IMPORTED_EVENT_BYTES, HexFormat.of().formatHex(codec.encode(imported())));
+    }
+
+    // ✅ Test: Contacts and events written by the servlet app are read back field for field
+    @Test
+    void testReadsServletBytes() {
+        assertEquals(contact(), codec.decode(HexFormat.of().parseHex(CONTACT_BYTES)));
+        assertEquals(updated(), codec.decode(HexFormat.of().parseHex(CONTACT_EVENT_BYTES)));
+        assertEquals(imported(), codec.decode(HexFormat.of().parseHex(IMPORTED_EVENT_BYTES)));
+    }
+
+    // ✅ Test: Partial contacts and lists round-trip
+    @Test
+    void testRoundTrip() {
+        AddressBook partial = new AddressBook(null, 7L, "Jane", null, null, null);
+
+        assertEquals(partial, codec.decode(codec.encode(partial)));
+        assertEquals(List.of(contact(), partial), codec.decode(codec.encode(List.of(contact(), partial))));
+    }
+
+    // ✅ Test: The servlet app's user events (type 4) are refused, not misread
+    @Test
+    void testUnknownType() {
+        byte[] bytes = HexFormat.of().parseHex(CONTACT_BYTES);
+        bytes[1] = 4;
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(bytes));
+    }
+
+    private static AddressBook contact() {
+        return new AddressBook(42L, 7L, "John Doe", "john.doe@example.com", "1234567890", 3L);
+    }
+
+    private static ContactChangedEvent updated() {
+        return new ContactChangedEvent(ContactChangedEvent.ChangeType.UPDATED, 42L, 7L, "John Doe", "john.doe@example.com",
+                "1234567890", 1, Instant.ofEpochSecond(1_700_000_000L, 123_456_789));
+    }
+
+    private static ContactChangedEvent imported() {
+        return new ContactChangedEvent(ContactChangedEvent.ChangeType.IMPORTED, null, 7L, null, null, null, 250,
+                Instant.ofEpochSecond(1_700_000_000L));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.AddressBook.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    // ✅ Test: Every added key is reported (no false negatives)
+    @Test
+    void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("jti:" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("jti:" + i));
+        }
+    }
+
+    // ✅ Test: Bit layout is pinned; the servlet app's copy carries the same test, so both sides agree on
+    // which bits a revocation sets
+    @Test
+    void testBitLayout() {
+        BloomFilter jti = new BloomFilter(4, 0.5);
+        jti.add("jti:2f1c9a7e");
+        BloomFilter user = new BloomFilter(4, 0.5);
+        user.add("user:jagrati");
+
+        assertEquals(11, jti.hashCount());
+        assertEquals(0x2200088888002222L, jti.word(0));
+        assertEquals(0x0000044444444444L, user.word(0));
+    }
+
+    // ✅ Test: Default sizing (1M entries at 0.1%) is the same on every node
+    @Test
+    void testDefaultSizing() {
+        BloomFilter filter = new BloomFilter(1_000_000, 0.001);
+
+        assertEquals(14_377_600, filter.bitCount());
+        assertEquals(10, filter.hashCount());
+    }
+}
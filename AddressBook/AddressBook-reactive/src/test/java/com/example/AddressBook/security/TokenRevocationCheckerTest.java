@@ -0,0 +1,96 @@
+package com.example.AddressBook.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Date;
+
+// The keys, channel and pattern are spelled out rather than taken from the constants: they are the
+// contract with the servlet app's TokenRevocationService, which writes them
+class TokenRevocationCheckerTest {
+
+    private ReactiveStringRedisTemplate redisTemplate;
+    private ReactiveValueOperations<String, String> valueOperations;
+    private TokenRevocationChecker checker;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        valueOperations = mock(ReactiveValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.hasKey(anyString())).thenReturn(Mono.just(false));
+        when(valueOperations.get(anyString())).thenReturn(Mono.empty());
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(Flux.empty());
+        checker = new TokenRevocationChecker(redisTemplate, 1_000, 0.001, 3_600_000);
+    }
+
+    private static Claims claims(String jti, String username, long issuedAtMs) {
+        Claims claims = Jwts.claims();
+        claims.setId(jti);
+        claims.setSubject(username);
+        claims.setIssuedAt(new Date(issuedAtMs));
+        return claims;
+    }
+
+    // ✅ Test: A revoked jti is looked up under auth:revoked:jti:<jti>
+    @Test
+    void testIsRevoked_JtiKey() {
+        when(redisTemplate.hasKey("auth:revoked:jti:jti-1")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(checker.isRevoked(claims("jti-1", "jagrati", System.currentTimeMillis())))
+                .expectNext(true).verifyComplete();
+    }
+
+    // ✅ Test: auth:revoked:user:<username> holds the cut-off in epoch millis; older tokens are rejected
+    @Test
+    void testIsRevoked_UserCutOff() {
+        long now = System.currentTimeMillis();
+        when(valueOperations.get("auth:revoked:user:jagrati")).thenReturn(Mono.just(Long.toString(now)));
+
+        StepVerifier.create(checker.isRevoked(claims("jti-1", "jagrati", now - 1_000))).expectNext(true).verifyComplete();
+        StepVerifier.create(checker.isRevoked(claims("jti-2", "jagrati", now + 1_000))).expectNext(false).verifyComplete();
+    }
+
+    // ✅ Test: Rebuild scans auth:revoked:*; afterwards only filter hits reach Redis
+    @Test
+    void testRebuild_ScansRevocationKeys() {
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(Flux.just("auth:revoked:jti:jti-1"));
+        when(redisTemplate.hasKey("auth:revoked:jti:jti-1")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(checker.rebuild()).verifyComplete();
+
+        ArgumentCaptor<ScanOptions> options = ArgumentCaptor.forClass(ScanOptions.class);
+        verify(redisTemplate).scan(options.capture());
+        assertEquals("auth:revoked:*", options.getValue().getPattern());
+        StepVerifier.create(checker.isRevoked(claims("jti-1", null, System.currentTimeMillis())))
+                .expectNext(true).verifyComplete();
+        StepVerifier.create(checker.isRevoked(claims("jti-2", null, System.currentTimeMillis())))
+                .expectNext(false).verifyComplete();
+        verify(redisTemplate, never()).hasKey("auth:revoked:jti:jti-2");
+    }
+
+    // ✅ Test: New revocations are followed on the auth.revocations channel
+    @Test
+    void testStart_ListensOnRevocationChannel() {
+        doReturn(Flux.never()).when(redisTemplate).listenToChannel(anyString());
+
+        checker.start();
+        checker.stop();
+
+        verify(redisTemplate).listenToChannel("auth.revocations");
+    }
+}
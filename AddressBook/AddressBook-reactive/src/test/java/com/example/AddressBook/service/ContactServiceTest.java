@@ -0,0 +1,142 @@
+package com.example.AddressBook.service;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.messaging.ContactChangedEvent;
+import com.example.AddressBook.messaging.ContactEventPublisher;
+import com.example.AddressBook.model.AddressBook;
+import com.example.AddressBook.repository.AddressBookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+class ContactServiceTest {
+
+    private static final Long OWNER_ID = 42L;
+
+    private AddressBookRepository repository;
+    private ReactiveValueOperations<String, Object> valueOperations;
+    private ReactiveRedisTemplate<String, Object> redisTemplate;
+    private ReactiveStringRedisTemplate stringRedisTemplate;
+    private ContactEventPublisher publisher;
+    private ContactService contactService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(AddressBookRepository.class);
+        valueOperations = mock(ReactiveValueOperations.class);
+        redisTemplate = mock(ReactiveRedisTemplate.class);
+        stringRedisTemplate = mock(ReactiveStringRedisTemplate.class);
+        publisher = mock(ContactEventPublisher.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.just(true));
+        when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(Mono.just(true));
+        when(redisTemplate.delete(anyString())).thenReturn(Mono.just(1L));
+        when(stringRedisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+        when(publisher.publish(any())).thenReturn(Mono.empty());
+        contactService = new ContactService(repository, redisTemplate, stringRedisTemplate, publisher, Duration.ofMinutes(30));
+    }
+
+    // ✅ Test: Cache hit never touches the database
+    @Test
+    void testGetContactById_CacheHit() {
+        AddressBook contact = new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 0L);
+        when(valueOperations.get("contacts::42:1")).thenReturn(Mono.just(contact));
+
+        StepVerifier.create(contactService.getContactById(OWNER_ID, 1L)).expectNext(contact).verifyComplete();
+
+        verify(repository, never()).findByIdAndOwnerId(anyLong(), anyLong());
+    }
+
+    // ✅ Test: Cache miss loads from the database and fills the shared entry only if it is still absent
+    @Test
+    void testGetContactById_CacheMissFillsCache() {
+        AddressBook contact = new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 0L);
+        when(valueOperations.get("contacts::42:1")).thenReturn(Mono.empty());
+        when(repository.findByIdAndOwnerId(1L, OWNER_ID)).thenReturn(Mono.just(contact));
+
+        StepVerifier.create(contactService.getContactById(OWNER_ID, 1L)).expectNext(contact).verifyComplete();
+
+        verify(valueOperations).setIfAbsent("contacts::42:1", contact, Duration.ofMinutes(30));
+        verify(valueOperations, never()).set(anyString(), any(), any(Duration.class));
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    // ✅ Test: A fill that loses to a concurrent write keeps the written value and still returns the loaded contact
+    @Test
+    void testGetContactById_FillLosesToWrite() {
+        AddressBook contact = new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 0L);
+        when(valueOperations.get("contacts::42:1")).thenReturn(Mono.empty());
+        when(repository.findByIdAndOwnerId(1L, OWNER_ID)).thenReturn(Mono.just(contact));
+        when(valueOperations.setIfAbsent("contacts::42:1", contact, Duration.ofMinutes(30))).thenReturn(Mono.just(false));
+
+        StepVerifier.create(contactService.getContactById(OWNER_ID, 1L)).expectNext(contact).verifyComplete();
+
+        verify(valueOperations, never()).set(anyString(), any(), any(Duration.class));
+    }
+
+    // ✅ Test: Another user's contact is not found
+    @Test
+    void testGetContactById_OtherOwner() {
+        when(valueOperations.get("contacts::7:1")).thenReturn(Mono.empty());
+        when(repository.findByIdAndOwnerId(1L, 7L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(contactService.getContactById(7L, 1L)).expectError(RuntimeException.class).verify();
+
+        verify(valueOperations, never()).setIfAbsent(anyString(), any(), any(Duration.class));
+    }
+
+    // ✅ Test: Create caches the new contact and publishes an event
+    @Test
+    void testAddContact_PublishesAndInvalidates() {
+        AddressBook saved = new AddressBook(7L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 0L);
+        when(repository.save(any(AddressBook.class))).thenReturn(Mono.just(saved));
+
+        StepVerifier.create(contactService.addContact(OWNER_ID,
+                        new AddressBook(null, null, "John Doe", "john@example.com", "1234567890", null)))
+                .expectNext(saved)
+                .verifyComplete();
+
+        verify(repository).save(argThat(contact -> OWNER_ID.equals(contact.getOwnerId())));
+        verify(valueOperations).set("contacts::42:7", saved, Duration.ofMinutes(30));
+        verify(publisher).publish(argThat(event -> event.getType() == ContactChangedEvent.ChangeType.CREATED
+                && event.getContactId() == 7L && OWNER_ID.equals(event.getOwnerId())));
+    }
+
+    // ✅ Test: Deleting a missing contact fails without side effects
+    @Test
+    void testDeleteContact_NotFound() {
+        when(repository.findByIdAndOwnerId(9L, OWNER_ID)).thenReturn(Mono.empty());
+
+        StepVerifier.create(contactService.deleteContact(OWNER_ID, 9L, null)).expectError(RuntimeException.class).verify();
+
+        verify(repository, never()).delete(any(AddressBook.class));
+        verify(publisher, never()).publish(any());
+    }
+
+    // ✅ Test: Update against a stale version fails with 412 and leaves the row alone
+    @Test
+    void testUpdateContact_StaleVersion() {
+        AddressBook stored = new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 3L);
+        when(repository.findByIdAndOwnerId(1L, OWNER_ID)).thenReturn(Mono.just(stored));
+
+        StepVerifier.create(contactService.updateContact(OWNER_ID, 1L,
+                        new AddressBook(1L, OWNER_ID, "John Smith", "john@example.com", "1234567890", 2L)))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException rse
+                        && rse.getStatusCode() == HttpStatus.PRECONDITION_FAILED)
+                .verify();
+
+        verify(repository, never()).save(any(AddressBook.class));
+        verify(publisher, never()).publish(any());
+    }
+}
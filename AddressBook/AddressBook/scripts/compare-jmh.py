@@ -0,0 +1,72 @@
+#!/usr/bin/env python3
+"""Compare two JMH JSON result files and fail on regressions.
+
+Usage: compare-jmh.py BASELINE.json CURRENT.json [--threshold PERCENT]
+
+A benchmark regresses when it is worse than the baseline by more than the threshold
+AND the difference is larger than the two runs' combined error margins. Throughput
+modes are higher-is-better; all other modes are lower-is-better.
+"""
+import argparse
+import json
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for entry in json.load(f):
+            params = entry.get("params") or {}
+            key = entry["benchmark"] + "".join(f" {k}={v}" for k, v in sorted(params.items()))
+            metric = entry["primaryMetric"]
+            results[key] = (entry["mode"], metric["score"], metric.get("scoreError") or 0.0, metric["scoreUnit"])
+        return results
+
+
+def error(value):
+    # JMH reports "NaN" error when there are too few iterations to compute one
+    value = float(value)
+    return 0.0 if value != value else value
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0, help="allowed slowdown in percent (default 10)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+    regressions = 0
+
+    for key in sorted(current):
+        mode, score, score_error, unit = current[key]
+        if key not in baseline:
+            print(f"NEW        {key}: {score:.3f} {unit}")
+            continue
+        _, base_score, base_error, _ = baseline[key]
+        higher_is_better = mode == "thrpt"
+        delta = (score - base_score) if higher_is_better else (base_score - score)
+        change = 100.0 * delta / base_score if base_score else 0.0
+        significant = abs(score - base_score) > error(score_error) + error(base_error)
+        if change < -args.threshold and significant:
+            status = "REGRESSION"
+            regressions += 1
+        elif change > args.threshold and significant:
+            status = "IMPROVED"
+        else:
+            status = "OK"
+        print(f"{status:<10} {key}: {base_score:.3f} -> {score:.3f} {unit} ({change:+.1f}%)")
+
+    for key in sorted(set(baseline) - set(current)):
+        print(f"MISSING    {key}")
+
+    if regressions:
+        print(f"\n{regressions} benchmark(s) regressed by more than {args.threshold:.0f}%")
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,27 @@
+#!/usr/bin/env bash
+# Runs LoadTest at increasing arrival rates in platform-thread and virtual-thread mode and
+# prints the total row and DB pool line of each run, e.g.
+#
+#   scripts/loadtest-sweep.sh "200 500 1000 2000" PT60S
+#
+# Full reports are kept in target/loadtest/.
+set -euo pipefail
+
+RATES=${1:-"200 500 1000 2000"}
+DURATION=${2:-PT60S}
+EXTRA_ARGS=${3:-}
+OUT=target/loadtest
+
+cd "$(dirname "$0")/.."
+mkdir -p "$OUT"
+mvn -q -Pbenchmark test-compile
+
+for mode in default virtual-threads; do
+  for rate in $RATES; do
+    report="$OUT/$mode-$rate.txt"
+    mvn -q -Pbenchmark exec:exec@loadtest \
+      -Dloadtest.args="--rate $rate --duration $DURATION --spring.profiles.active=$mode $EXTRA_ARGS" > "$report" 2>&1
+    printf '%-16s %6s req/s  %s\n' "$mode" "$rate" "$(grep -E '^total ' "$report" || echo 'run failed, see '"$report")"
+    printf '%-16s %6s        %s\n' "" "" "$(grep -E '^DB pool' "$report" || true)"
+  done
+done
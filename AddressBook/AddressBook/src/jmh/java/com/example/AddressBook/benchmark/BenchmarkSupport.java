@@ -0,0 +1,32 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.model.AddressBook;
+import com.example.AddressBook.security.JwtUtil;
+import org.springframework.test.util.ReflectionTestUtils;
+
+final class BenchmarkSupport {
+
+    static final String JWT_SECRET = "YmVuY2htYXJrLXNlY3JldC1rZXktbm90LWZvci1wcm9kdWN0aW9uLXVzZS0xMjM0NTY=";
+
+    private BenchmarkSupport() {
+    }
+
+    static JwtUtil jwtUtil() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 100_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    static AddressBook contact() {
+        AddressBook contact = new AddressBook();
+        contact.setId(42L);
+        contact.setOwnerId(1L);
+        contact.setName("John Doe");
+        contact.setEmail("john.doe@example.com");
+        contact.setPhone("1234567890");
+        return contact;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.config.RedisConfig;
+import com.example.AddressBook.model.AddressBook;
+import com.example.AddressBook.service.AddressBookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getContactById through the Spring cache proxy: a local (L1) hit, and a miss that falls
+ * through Redis to the database and repopulates both levels.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContactCacheBenchmark {
+
+    private EmbeddedStack stack;
+    private AddressBookService service;
+    private Cache contacts;
+    private static final Long OWNER_ID = 1L;
+
+    private Long contactId;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        stack = EmbeddedStack.start(Map.of());
+        service = stack.bean(AddressBookService.class);
+        contacts = stack.bean(CacheManager.class).getCache("contacts");
+        AddressBook contact = BenchmarkSupport.contact();
+        contact.setId(null);
+        contactId = service.addContact(OWNER_ID, contact).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws Exception {
+        stack.close();
+    }
+
+    @Benchmark
+    public AddressBook getContactByIdHit() {
+        return service.getContactById(OWNER_ID, contactId);
+    }
+
+    @Benchmark
+    public AddressBook getContactByIdMiss(Eviction eviction) {
+        return service.getContactById(OWNER_ID, contactId);
+    }
+
+    @State(Scope.Thread)
+    public static class Eviction {
+
+        // Per-invocation setup is excluded from the measured time
+        @Setup(Level.Invocation)
+        public void evict(ContactCacheBenchmark benchmark) {
+            benchmark.contacts.evict(RedisConfig.contactKey(OWNER_ID, benchmark.contactId));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.service.ContactExportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full CSV export of a large owner through the real stack: ContactExportService,
+ * AddressBookService.streamAllContacts and the repository cursor, over a file-backed H2
+ * database so the seeded rows stay off the heap.
+ *
+ * The trial first exports a 10k-row owner as the baseline. It fails if the peak heap that
+ * survived young collections while exporting the large owner exceeds that baseline by more
+ * than {@code maxHeapGrowthMb}: a streaming export must not hold rows as it goes.
+ * Seeding the 10M rows takes a few minutes; {@code -p largeRows=1000000} for a quicker run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class ContactExportBenchmark {
+
+    private static final Long SMALL_OWNER_ID = 1L;
+    private static final Long LARGE_OWNER_ID = 2L;
+    private static final long SMALL_ROWS = 10_000;
+
+    @Param("10000000")
+    public long largeRows;
+
+    @Param("64")
+    public long maxHeapGrowthMb;
+
+    private EmbeddedStack stack;
+    private ContactExportService exportService;
+    private long baselinePeak;
+    private long largePeak;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        stack = EmbeddedStack.start(Map.of(
+                "spring.datasource.url", "jdbc:h2:file:./target/export-benchmark;MODE=MySQL",
+                "contacts.projection.enabled", false));
+        exportService = stack.bean(ContactExportService.class);
+        JdbcTemplate jdbcTemplate = stack.bean(JdbcTemplate.class);
+        seed(jdbcTemplate, SMALL_OWNER_ID, SMALL_ROWS);
+        seed(jdbcTemplate, LARGE_OWNER_ID, largeRows);
+
+        export(SMALL_OWNER_ID);  // warm the code path before taking the baseline
+        baselinePeak = measuredExport(SMALL_OWNER_ID, SMALL_ROWS);
+    }
+
+    @Benchmark
+    public void exportLargeOwner() throws IOException {
+        largePeak = Math.max(largePeak, measuredExport(LARGE_OWNER_ID, largeRows));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws Exception {
+        stack.close();
+        long growthMb = (largePeak - baselinePeak) >> 20;
+        System.out.printf("export peak retained heap: %d MB at %d rows, %d MB at %d rows%n",
+                baselinePeak >> 20, SMALL_ROWS, largePeak >> 20, largeRows);
+        if (growthMb > maxHeapGrowthMb) {
+            throw new IllegalStateException("Export heap grew by " + growthMb + " MB from " + SMALL_ROWS + " to "
+                    + largeRows + " rows (limit " + maxHeapGrowthMb + " MB)!");
+        }
+    }
+
+    private long measuredExport(Long ownerId, long expectedRows) throws IOException {
+        List<MemoryPoolMXBean> pools = retainingPools();
+        System.gc();
+        pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long rows = export(ownerId);
+        if (rows != expectedRows) {
+            throw new IllegalStateException("Exported " + rows + " rows, expected " + expectedRows + "!");
+        }
+        return pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    }
+
+    private long export(Long ownerId) throws IOException {
+        return exportService.export(ownerId, OutputStream.nullOutputStream(), ContactExportService.Format.CSV, false);
+    }
+
+    // Survivor and old generation: Eden peaks at its full size on every run, whatever is retained
+    private static List<MemoryPoolMXBean> retainingPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && !pool.getName().contains("Eden"))
+                .toList();
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, Long ownerId, long rows) {
+        jdbcTemplate.update("INSERT INTO address_book (owner_id, name, email, phone, version) "
+                + "SELECT ?, CONCAT('Contact ', X), CONCAT('contact', X, '@example.com'), '1234567890', 0 "
+                + "FROM SYSTEM_RANGE(1, ?)", ownerId, rows);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.search.ContactSearchIndex;
+import org.HdrHistogram.Histogram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type-ahead search over an index of 1M generated contacts, with a mix of exact, one-typo,
+ * prefix, email and phone queries. The trial fails if the p99 of the measured queries reaches
+ * {@code maxP99Ms} (10 ms: the latency target for the search endpoint).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ContactSearchBenchmark {
+
+    private static final String[] FIRST = {"john", "jane", "alex", "maria", "li", "mohammed", "sofia", "arjun", "emma", "noah"};
+    private static final String[] LAST = {"doe", "smith", "garcia", "wang", "kumar", "silva", "müller", "rossi", "kim", "nguyen"};
+    private static final String[] QUERIES = {"john", "jhon", "smi", "user12345", "arjun42 kumar", "900001", "ngu", "sofia smith"};
+
+    @Param("1000000")
+    public int contacts;
+
+    @Param("10")
+    public double maxP99Ms;
+
+    private ContactSearchIndex index;
+    private Histogram latencies;
+    private boolean recording;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        Random random = new Random(42);
+        index = new ContactSearchIndex();
+        for (long id = 1; id <= contacts; id++) {
+            String name = FIRST[random.nextInt(FIRST.length)] + id % 997 + " " + LAST[random.nextInt(LAST.length)];
+            index.index(id, name, "user" + id + "@example.com", String.valueOf(9_000_000_000L + id));
+        }
+        latencies = new Histogram(TimeUnit.SECONDS.toNanos(10), 3);
+    }
+
+    // Warmup iterations are not counted towards the p99 check
+    @Setup(Level.Iteration)
+    public void startIteration(IterationParams params) {
+        recording = params.getType() == IterationType.MEASUREMENT;
+    }
+
+    @Benchmark
+    public ContactSearchIndex.Result search() {
+        String query = QUERIES[next];
+        next = (next + 1) % QUERIES.length;
+        long start = System.nanoTime();
+        ContactSearchIndex.Result result = index.search(query, 0, 20);
+        if (recording) {
+            latencies.recordValue(System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    @TearDown(Level.Trial)
+    public void checkP99() {
+        double p99 = latencies.getValueAtPercentile(99) / 1e6;
+        if (p99 >= maxP99Ms) {
+            throw new IllegalStateException(String.format("Search p99 %.3f ms on %d contacts, target %.1f ms!",
+                    p99, contacts, maxP99Ms));
+        }
+    }
+}
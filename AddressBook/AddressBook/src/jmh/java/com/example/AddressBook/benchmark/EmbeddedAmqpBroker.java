@@ -0,0 +1,93 @@
+package com.example.AddressBook.benchmark;
+
+import org.apache.qpid.server.SystemLauncher;
+import org.apache.qpid.server.model.SystemConfig;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory Qpid Broker-J speaking AMQP 0-9-1, as a local stand-in for RabbitMQ.
+ * Accepts the default guest/guest credentials on a free local port.
+ */
+public final class EmbeddedAmqpBroker implements AutoCloseable {
+
+    private static final String INITIAL_CONFIG = """
+            {
+              "name": "embedded-broker",
+              "modelVersion": "9.0",
+              "authenticationproviders": [{
+                "name": "plain",
+                "type": "Plain",
+                "secureOnlyMechanisms": [],
+                "users": [{"name": "guest", "password": "guest", "type": "managed"}]
+              }],
+              "ports": [{
+                "name": "AMQP",
+                "port": "${qpid.amqp_port}",
+                "authenticationProvider": "plain",
+                "virtualhostaliases": [
+                  {"name": "nameAlias", "type": "nameAlias"},
+                  {"name": "defaultAlias", "type": "defaultAlias"}
+                ]
+              }],
+              "virtualhostnodes": [{
+                "name": "default",
+                "type": "Memory",
+                "defaultVirtualHostNode": "true",
+                "virtualHostInitialConfiguration": "{\\"type\\": \\"Memory\\"}"
+              }]
+            }
+            """;
+
+    private final SystemLauncher launcher;
+    private final Path workDir;
+    private final int port;
+
+    private EmbeddedAmqpBroker(SystemLauncher launcher, Path workDir, int port) {
+        this.launcher = launcher;
+        this.workDir = workDir;
+        this.port = port;
+    }
+
+    public static EmbeddedAmqpBroker start() throws Exception {
+        Path workDir = Files.createTempDirectory("qpid-work");
+        Path config = workDir.resolve("initial-config.json");
+        Files.writeString(config, INITIAL_CONFIG);
+        int port = freePort();
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(SystemConfig.TYPE, "Memory");
+        attributes.put(SystemConfig.INITIAL_CONFIGURATION_LOCATION, config.toUri().toString());
+        attributes.put(SystemConfig.STARTUP_LOGGED_TO_SYSTEM_OUT, false);
+        attributes.put(SystemConfig.CONTEXT, Map.of(
+                "qpid.amqp_port", String.valueOf(port),
+                "qpid.work_dir", workDir.toString()));
+
+        SystemLauncher launcher = new SystemLauncher();
+        launcher.startup(attributes);
+        return new EmbeddedAmqpBroker(launcher, workDir, port);
+    }
+
+    public int port() {
+        return port;
+    }
+
+    @Override
+    public void close() throws IOException {
+        launcher.shutdown();
+        try (var files = Files.walk(workDir)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
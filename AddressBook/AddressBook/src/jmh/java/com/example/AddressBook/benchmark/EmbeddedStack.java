@@ -0,0 +1,89 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.AddressBookApplication;
+import com.github.fppt.jedismock.RedisServer;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Boots AddressBookApplication in-process against embedded H2 and local stand-ins for
+ * Redis (jedis-mock), RabbitMQ (Qpid Broker-J) and SMTP (GreenMail), for benchmarks and
+ * load tests that need the real bean graph (caches, proxies, transactions, messaging).
+ */
+public final class EmbeddedStack implements AutoCloseable {
+
+    private final RedisServer redis;
+    private final EmbeddedAmqpBroker broker;
+    private final GreenMail smtp;
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedStack(RedisServer redis, EmbeddedAmqpBroker broker, GreenMail smtp, ConfigurableApplicationContext context) {
+        this.redis = redis;
+        this.broker = broker;
+        this.smtp = smtp;
+        this.context = context;
+    }
+
+    public static EmbeddedStack start(Map<String, Object> overrides) throws Exception {
+        RedisServer redis = RedisServer.newRedisServer(0);
+        redis.start();
+        EmbeddedAmqpBroker broker = EmbeddedAmqpBroker.start();
+        GreenMail smtp = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        smtp.start();
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", "jdbc:h2:mem:addressbook;DB_CLOSE_DELAY=-1;MODE=MySQL");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.data.redis.host", "localhost");
+        properties.put("spring.data.redis.port", redis.getBindPort());
+        properties.put("spring.rabbitmq.host", "localhost");
+        properties.put("spring.rabbitmq.port", broker.port());
+        properties.put("spring.mail.host", "localhost");
+        properties.put("spring.mail.port", smtp.getSmtp().getPort());
+        properties.put("jwt.secret", BenchmarkSupport.JWT_SECRET);
+        properties.put("jwt.expirationMs", 3_600_000L);
+        // Production limits would turn most logins and reset requests of a load mix into 429s: use the cheapest
+        // BCrypt cost instead of calibrating to ~250 ms, and no per-email reset limit. Overrides can restore them
+        properties.put("auth.hashing.bcrypt-strength", 4);
+        properties.put("auth.reset.max-per-window", Integer.MAX_VALUE);
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(overrides);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(AddressBookApplication.class)
+                .properties(properties)
+                .run();
+        return new EmbeddedStack(redis, broker, smtp, context);
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    public String property(String name, String defaultValue) {
+        return context.getEnvironment().getProperty(name, defaultValue);
+    }
+
+    public int receivedEmails() {
+        return smtp.getReceivedMessages().length;
+    }
+
+    @Override
+    public void close() throws Exception {
+        context.close();
+        smtp.stop();
+        broker.close();
+        redis.stop();
+    }
+}
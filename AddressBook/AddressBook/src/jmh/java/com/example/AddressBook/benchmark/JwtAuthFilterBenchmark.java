@@ -0,0 +1,79 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.model.User;
+import com.example.AddressBook.repository.UserRepository;
+import com.example.AddressBook.security.JwtAuthFilter;
+import com.example.AddressBook.security.JwtUtil;
+import com.example.AddressBook.security.TokenRevocationService;
+import com.example.AddressBook.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full per-request authentication path: header parsing, claims lookup, revocation
+ * check (Bloom filter miss, no Redis), principal lookup and SecurityContext population.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    private JwtAuthFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        User user = new User(1L, "bench-user", "bench@example.com", "{noop}secret", "ROLE_USER");
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.readByUsername("bench-user")).thenReturn(Optional.of(user));
+
+        // Empty denylist: the filter is loaded once and every check stays in-process
+        StringRedisTemplate redisTemplate = Mockito.mock(StringRedisTemplate.class);
+        Mockito.when(redisTemplate.scan(Mockito.any(ScanOptions.class))).thenReturn(Mockito.mock(Cursor.class));
+        TokenRevocationService revocations = new TokenRevocationService(redisTemplate, 60_000, 1_000_000, 0.001,
+                new SimpleMeterRegistry());
+        revocations.rebuild();
+
+        JwtUtil jwtUtil = BenchmarkSupport.jwtUtil();
+        filter = new JwtAuthFilter(jwtUtil, new CustomUserDetailsService(userRepository, Duration.ofMinutes(5), 10_000),
+                revocations, new SimpleMeterRegistry());
+        authorization = "Bearer " + jwtUtil.generateToken("bench-user");
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        // A fresh request each time: OncePerRequestFilter skips requests it has already seen
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contacts");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkSupport.jwtUtil();
+        token = jwtUtil.generateToken("bench-user");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("bench-user");
+    }
+
+    // Same token every call: measures the claims-cache hit path
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    // Fresh token every call: parse and signature verification, the path every new token takes once
+    @Benchmark
+    public String extractUsernameCold(FreshToken fresh) {
+        return jwtUtil.extractUsername(fresh.token);
+    }
+
+    @State(Scope.Thread)
+    public static class FreshToken {
+
+        private String token;
+
+        // Per-invocation setup is excluded from the measured time; the unique jti keeps it out of the claims cache
+        @Setup(Level.Invocation)
+        public void generate(JwtBenchmark benchmark) {
+            token = benchmark.jwtUtil.generateToken("bench-user");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.AddressBook.benchmark;
+
+import com.example.AddressBook.codec.CompactCodec;
+import com.example.AddressBook.codec.CompactRedisSerializer;
+import com.example.AddressBook.messaging.ContactChangedEvent;
+import com.example.AddressBook.model.AddressBook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache value and event payload formats: the compact codec against the JSON it replaced in
+ * Redis and the Java serialization it replaced on AMQP. Encoded sizes are printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"json", "java", "compact"})
+    private String format;
+
+    @Param({"contact", "contact-list", "event"})
+    private String payload;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        serializer = switch (format) {
+            case "json" -> new GenericJackson2JsonRedisSerializer();
+            case "java" -> new JdkSerializationRedisSerializer();
+            default -> new CompactRedisSerializer(new CompactCodec(true, 1024));
+        };
+        value = switch (payload) {
+            case "contact" -> BenchmarkSupport.contact();
+            case "contact-list" -> contacts(200);  // a typical page-sized list
+            default -> ContactChangedEvent.of(ContactChangedEvent.ChangeType.UPDATED, BenchmarkSupport.contact());
+        };
+        serialized = serializer.serialize(value);
+        System.out.printf("%n%s/%s: %d bytes%n", format, payload, serialized.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+
+    private static List<AddressBook> contacts(int count) {
+        List<AddressBook> contacts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AddressBook contact = BenchmarkSupport.contact();
+            contact.setId(1000L + i);
+            contact.setName("Contact " + i);
+            contact.setEmail("contact" + i + "@example.com");
+            contact.setPhone(String.valueOf(5550000000L + i));
+            contact.setVersion((long) (i % 7));
+            contacts.add(contact);
+        }
+        return contacts;
+    }
+}
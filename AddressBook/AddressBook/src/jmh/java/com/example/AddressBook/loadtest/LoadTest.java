@@ -0,0 +1,178 @@
+package com.example.AddressBook.loadtest;
+
+import com.example.AddressBook.benchmark.EmbeddedStack;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the REST API.
+ *
+ * Requests arrive at a fixed average rate (Poisson or constant spacing) whether or not
+ * earlier ones have completed, which is how real clients behave; each request runs on its
+ * own virtual thread. Unless --base-url is given, the application is booted in-process
+ * with H2 and local stand-ins for Redis, RabbitMQ and SMTP (see {@link EmbeddedStack}).
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@loadtest -Dloadtest.args="--rate 500 --duration PT60S --contacts 50000"
+ * </pre>
+ *
+ * Options (defaults in brackets): --rate [200] requests/s, --duration [PT60S], --warmup [PT10S],
+ * --contacts [10000] seeded rows, --users [20], --arrival [poisson|constant],
+ * --max-in-flight [5000], --base-url [embedded], and
+ * --mix [get_contact=50,list_contacts=15,create_contact=10,update_contact=10,delete_contact=5,login=8,forgot_password=2];
+ * batch_get (50 random ids per request) can be added to the mix.
+ * Any other --key=value is passed to the embedded application as a property, e.g.
+ * --spring.profiles.active=virtual-threads; scripts/loadtest-sweep.sh compares both modes.
+ */
+public final class LoadTest {
+
+    private static final String DEFAULT_MIX =
+            "get_contact=50,list_contacts=15,create_contact=10,update_contact=10,delete_contact=5,login=8,forgot_password=2";
+
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        double rate = Double.parseDouble(options.remove("rate"));
+        Duration duration = Duration.parse(options.remove("duration"));
+        Duration warmup = Duration.parse(options.remove("warmup"));
+        int contacts = Integer.parseInt(options.remove("contacts"));
+        int users = Integer.parseInt(options.remove("users"));
+        boolean poisson = options.remove("arrival").equals("poisson");
+        int maxInFlight = Integer.parseInt(options.remove("max-in-flight"));
+        Map<Operation, Integer> mix = parseMix(options.remove("mix"));
+        String baseUrl = options.remove("base-url");
+
+        EmbeddedStack stack = null;
+        if (baseUrl == null) {
+            stack = EmbeddedStack.start(new HashMap<>(options));
+            baseUrl = "http://localhost:" + stack.port();
+        }
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(requests)
+                    .build();
+            Workload workload = new Workload(client, baseUrl, mix);
+            workload.seed(users, contacts);
+
+            LatencyStats stats = new LatencyStats();
+            System.out.printf("Warming up for %s at %.0f req/s against %s%n", warmup, rate, baseUrl);
+            generate(workload, stats, requests, rate, warmup, poisson, maxInFlight);
+            drain();
+            stats.reset();
+
+            System.out.printf("Measuring for %s%n", duration);
+            PoolMonitor pool = stack == null ? null
+                    : new PoolMonitor(stack.bean(HikariDataSource.class), stack.bean(MeterRegistry.class));
+            long started = System.nanoTime();
+            generate(workload, stats, requests, rate, duration, poisson, maxInFlight);
+            drain();
+            stats.print(System.out, (System.nanoTime() - started) / 1e9);
+            if (stack != null) {
+                pool.close();
+                pool.print(System.out);
+                System.out.printf("Virtual threads: %s%n", stack.property("spring.threads.virtual.enabled", "false"));
+                System.out.printf("Emails received by the SMTP stand-in: %d%n", stack.receivedEmails());
+            }
+        } finally {
+            if (stack != null) {
+                stack.close();
+            }
+        }
+    }
+
+    private static void generate(Workload workload, LatencyStats stats, ExecutorService requests, double rate,
+                                 Duration duration, boolean poisson, int maxInFlight) {
+        long meanIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long intended = start;
+        while (intended < end) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (IN_FLIGHT.get() >= maxInFlight) {
+                stats.drop();
+            } else {
+                IN_FLIGHT.incrementAndGet();
+                long scheduledAt = intended;
+                Operation operation = workload.nextOperation();
+                requests.execute(() -> {
+                    boolean success = false;
+                    try {
+                        success = workload.execute(operation);
+                    } catch (Exception e) {
+                        // counted as an error below
+                    } finally {
+                        stats.record(operation, System.nanoTime() - scheduledAt, success);
+                        IN_FLIGHT.decrementAndGet();
+                    }
+                });
+            }
+            intended += poisson
+                    ? (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos)
+                    : meanIntervalNanos;
+        }
+    }
+
+    // Let requests issued near the end complete so they are counted
+    private static void drain() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (IN_FLIGHT.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                System.out.printf("WARNING: %d requests still in flight after 60 s%n", IN_FLIGHT.get());
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "rate", "200", "duration", "PT60S", "warmup", "PT10S", "contacts", "10000", "users", "20",
+                "arrival", "poisson", "max-in-flight", "5000", "mix", DEFAULT_MIX));
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else if (i + 1 < args.length) {
+                options.put(arg.substring(2), args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+        }
+        return options;
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            mix.put(Operation.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.AddressBook.loadtest;
+
+enum Operation {
+    GET_CONTACT,
+    BATCH_GET,
+    LIST_CONTACTS,
+    CREATE_CONTACT,
+    UPDATE_CONTACT,
+    DELETE_CONTACT,
+    LOGIN,
+    FORGOT_PASSWORD
+}
@@ -0,0 +1,61 @@
+package com.example.AddressBook.loadtest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.PrintStream;
+
+/**
+ * Samples the embedded instance's Hikari pool while load runs, to show whether more
+ * request concurrency turned into waiting for connections or into connection timeouts.
+ */
+class PoolMonitor implements AutoCloseable {
+
+    private final HikariDataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final double timeoutsAtStart;
+    private final Thread sampler;
+    private volatile boolean running = true;
+    private volatile int peakActive;
+    private volatile int peakWaiting;
+
+    PoolMonitor(HikariDataSource dataSource, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.timeoutsAtStart = timeouts();
+        this.sampler = Thread.ofPlatform().daemon().name("pool-monitor").start(this::sample);
+    }
+
+    private void sample() {
+        while (running) {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool != null) {
+                peakActive = Math.max(peakActive, pool.getActiveConnections());
+                peakWaiting = Math.max(peakWaiting, pool.getThreadsAwaitingConnection());
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private double timeouts() {
+        Counter counter = meterRegistry.find("hikaricp.connections.timeout").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    void print(PrintStream out) {
+        out.printf("%nDB pool: size %d, peak active %d, peak waiting %d, connection timeouts %.0f%n",
+                dataSource.getMaximumPoolSize(), peakActive, peakWaiting, timeouts() - timeoutsAtStart);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        sampler.join();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.AddressBook.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
+
+/**
+ * Seeds users and contacts, then issues one request per call according to a weighted
+ * read/write mix. Contacts belong to the account that created them, so each account has its
+ * own id pool; ids created during the run join the pool that the account's reads, updates
+ * and deletes pick from, so the table size stays roughly stable.
+ */
+class Workload {
+
+    private static final int BATCH_GET_SIZE = 50;
+
+    private record Account(String username, String email, String password, String token, IdPool contactIds) {
+    }
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, Integer> mix;
+    private final int totalWeight;
+    private final List<Account> accounts = new ArrayList<>();
+
+    Workload(HttpClient client, String baseUrl, Map<Operation, Integer> mix) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.mix = new EnumMap<>(mix);
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("Workload mix must have a positive total weight");
+        }
+    }
+
+    // ✅ Register and log in the given number of users, import contacts, then load their ids
+    void seed(int users, int contacts) throws IOException, InterruptedException {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        for (int i = 0; i < users; i++) {
+            String username = "load-" + run + "-" + i;
+            String email = username + "@example.com";
+            String password = "Password-" + i;
+            expectOk(send(post("/api/auth/register", null,
+                    Map.of("username", username, "email", email, "password", password))), "register");
+            JsonNode login = objectMapper.readTree(expectOk(send(post("/api/auth/login", null,
+                    Map.of("username", username, "password", password))), "login").body());
+            accounts.add(new Account(username, email, password, login.get("token").asText(), new IdPool()));
+        }
+
+        // Contacts are spread evenly over the accounts, each imported by its owner
+        int seeded = 0;
+        for (int a = 0; a < accounts.size(); a++) {
+            Account account = accounts.get(a);
+            int share = contacts / accounts.size() + (a < contacts % accounts.size() ? 1 : 0);
+            if (share > 0) {
+                StringBuilder csv = new StringBuilder("name,email,phone\n");
+                for (int i = 0; i < share; i++) {
+                    csv.append("Contact ").append(run).append(' ').append(a).append('-').append(i)
+                            .append(",contact-").append(run).append('-').append(a).append('-').append(i)
+                            .append("@example.com,").append(5_550_000_000L + i).append('\n');
+                }
+                HttpRequest request = authorized("/api/contacts/bulk", account)
+                        .header("Content-Type", "text/csv")
+                        .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                        .build();
+                expectOk(send(request), "bulk import");
+            }
+
+            String after = "";
+            while (true) {
+                JsonNode page = objectMapper.readTree(expectOk(send(authorized("/api/contacts?limit=500" + after, account)
+                        .GET().build()), "list contacts").body());
+                page.get("contacts").forEach(contact -> account.contactIds().add(contact.get("id").asLong()));
+                JsonNode next = page.get("nextCursor");
+                if (next == null || next.isNull()) {
+                    break;
+                }
+                after = "&after=" + next.asText();
+            }
+            seeded += account.contactIds().size();
+        }
+        System.out.printf("Seeded %d users and %d contacts%n", accounts.size(), seeded);
+    }
+
+    Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    // ✅ Blocking; true for a 2xx response
+    boolean execute(Operation operation) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Account account = accounts.get(random.nextInt(accounts.size()));
+        IdPool contactIds = account.contactIds();
+        HttpResponse<String> response = switch (operation) {
+            case GET_CONTACT -> send(authorized("/api/contacts/" + contactIds.random(), account).GET().build());
+            case BATCH_GET -> send(post("/api/contacts/batch-get", account,
+                    Map.of("ids", LongStream.range(0, BATCH_GET_SIZE).map(i -> contactIds.random()).boxed().toList())));
+            case LIST_CONTACTS -> send(authorized("/api/contacts?limit=50&after=" + contactIds.random(), account).GET().build());
+            case CREATE_CONTACT -> {
+                HttpResponse<String> created = send(post("/api/contacts", account, contact(random.nextInt())));
+                if (created.statusCode() / 100 == 2) {
+                    contactIds.add(objectMapper.readTree(created.body()).get("id").asLong());
+                }
+                yield created;
+            }
+            case UPDATE_CONTACT -> send(authorized("/api/contacts/" + contactIds.random(), account)
+                    .header("Content-Type", "application/json")
+                    .PUT(json(contact(random.nextInt())))
+                    .build());
+            case DELETE_CONTACT -> {
+                long id = contactIds.take();
+                yield id < 0 ? null : send(authorized("/api/contacts/" + id, account).DELETE().build());
+            }
+            case LOGIN -> send(post("/api/auth/login", null,
+                    Map.of("username", account.username(), "password", account.password())));
+            case FORGOT_PASSWORD -> send(post("/api/auth/forgot-password", null, Map.of("email", account.email())));
+        };
+        return response != null && response.statusCode() / 100 == 2;
+    }
+
+    private static Map<String, String> contact(int n) {
+        return Map.of("name", "Load Contact " + n, "email", "load-" + n + "@example.com", "phone", String.valueOf(5_551_000_000L + n));
+    }
+
+    private HttpRequest.Builder authorized(String path, Account account) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + account.token());
+    }
+
+    private HttpRequest post(String path, Account account, Object body) throws IOException {
+        HttpRequest.Builder builder = account == null ? HttpRequest.newBuilder(URI.create(baseUrl + path)) : authorized(path, account);
+        return builder.header("Content-Type", "application/json").POST(json(body)).build();
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> expectOk(HttpResponse<String> response, String step) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding failed at " + step + ": HTTP " + response.statusCode() + " " + response.body());
+        }
+        return response;
+    }
+
+    // Contact ids with O(1) random pick and removal
+    private static final class IdPool {
+        private long[] ids = new long[1024];
+        private int size;
+
+        synchronized void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        synchronized long random() {
+            return size == 0 ? 1 : ids[ThreadLocalRandom.current().nextInt(size)];
+        }
+
+        synchronized long take() {
+            if (size == 0) {
+                return -1;
+            }
+            int index = ThreadLocalRandom.current().nextInt(size);
+            long id = ids[index];
+            ids[index] = ids[--size];
+            return id;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+    }
+}
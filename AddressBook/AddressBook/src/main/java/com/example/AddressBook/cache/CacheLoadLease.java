@@ -0,0 +1,64 @@
+package com.example.AddressBook.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Short-lived Redis lease that lets one node at a time reload a cache entry from the database.
+ *
+ * {@code SET NX PX} acquires; the TTL frees the lease if the holder dies mid-load. Release only
+ * deletes the key while this node still owns it, so a lease that expired and was taken over is
+ * left alone. If Redis cannot be reached the caller is told it holds the lease: loading without
+ * coordination beats failing the read.
+ */
+public class CacheLoadLease {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheLoadLease.class);
+    static final String KEY_PREFIX = "cache:lease:";
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final String owner = UUID.randomUUID().toString();
+
+    public CacheLoadLease(StringRedisTemplate redisTemplate, Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    public boolean tryAcquire(String name) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + name, owner, ttl));
+        } catch (DataAccessException e) {
+            logger.warn("Cache load lease unavailable for {}, loading without it - {}", name, e.getMessage());
+            return true;
+        }
+    }
+
+    // ✅ false once the holder released it or it expired - time to stop waiting
+    public boolean isHeld(String name) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + name));
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    public void release(String name) {
+        try {
+            redisTemplate.execute(RELEASE, List.of(KEY_PREFIX + name), owner);
+        } catch (DataAccessException e) {
+            // Expires on its own after the lease TTL
+            logger.warn("Failed to release cache load lease for {} - {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.AddressBook.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-key reads and writes on the entries of one {@link RedisCache}, one round trip each,
+ * using the cache's own key prefix, value serializer and TTL function so the entries are the
+ * same ones {@code get}/{@code put} see.
+ */
+public class RedisCacheBulkOperations {
+
+    // Compare-and-set on the serialized value; a PX of 0 means no expiry
+    private static final byte[] REPLACE_IF_UNCHANGED = ("""
+            if redis.call('get', KEYS[1]) ~= ARGV[1] then return 0 end
+            if ARGV[3] == '0' then redis.call('set', KEYS[1], ARGV[2])
+            else redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) end
+            return 1""").getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCache cache;
+    private final RedisCacheConfiguration config;
+
+    public RedisCacheBulkOperations(StringRedisTemplate redisTemplate, RedisCache cache) {
+        this.redisTemplate = redisTemplate;
+        this.cache = cache;
+        this.config = cache.getCacheConfiguration();
+    }
+
+    // ✅ One MGET; the result lines up with keys, null where there is no entry
+    public List<Object> multiGet(List<?> keys) {
+        byte[][] rawKeys = keys.stream().map(this::rawKey).toArray(byte[][]::new);
+        List<byte[]> rawValues = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(rawKeys));
+        List<Object> values = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] raw = rawValues == null ? null : rawValues.get(i);
+            values.add(raw == null ? null : config.getValueSerializationPair().read(ByteBuffer.wrap(raw)));
+        }
+        return values;
+    }
+
+    // ✅ One pipeline of SET NX PX: each entry keeps its own TTL (MSET cannot carry one), and an entry
+    // written meanwhile (e.g. by a @CachePut) is left alone, as a single miss would. Returns the keys written
+    public Set<Object> putAllIfAbsent(Map<?, ?> entries) {
+        List<Object> keys = new ArrayList<>(entries.keySet());
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisStringCommands commands = connection.stringCommands();
+            keys.forEach(key -> commands.set(rawKey(key), rawValue(entries.get(key)), expiration(key, entries.get(key)),
+                    RedisStringCommands.SetOption.SET_IF_ABSENT));
+            return null;
+        });
+        Set<Object> written = new HashSet<>();
+        for (int i = 0; i < keys.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                written.add(keys.get(i));
+            }
+        }
+        return written;
+    }
+
+    // ✅ Overwrites the entry, with a fresh TTL, only while it still holds {@code expected}; false if it
+    // changed or is gone
+    public boolean replaceIfUnchanged(Object key, Object expected, Object value) {
+        Expiration expiration = expiration(key, value);
+        byte[] px = Long.toString(expiration.isPersistent() ? 0 : expiration.getExpirationTimeInMilliseconds())
+                .getBytes(StandardCharsets.UTF_8);
+        Long replaced = redisTemplate.execute((RedisCallback<Long>) connection -> connection.scriptingCommands()
+                .eval(REPLACE_IF_UNCHANGED, ReturnType.INTEGER, 1, rawKey(key), rawValue(expected), rawValue(value), px));
+        return replaced != null && replaced == 1;
+    }
+
+    private byte[] rawKey(Object key) {
+        String cacheKey = config.usePrefix() ? config.getKeyPrefixFor(cache.getName()) + key : String.valueOf(key);
+        return toBytes(config.getKeySerializationPair().write(cacheKey));
+    }
+
+    private byte[] rawValue(Object value) {
+        return toBytes(config.getValueSerializationPair().write(value));
+    }
+
+    private Expiration expiration(Object key, Object value) {
+        Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+        return ttl == null || ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl);
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,556 @@
+package com.example.AddressBook.cache;
+
+import com.example.AddressBook.datasource.ReplicaRoutingDataSource;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache with an on-heap L1 (Caffeine) in front of a shared L2 (Redis).
+ * Reads are served from L1 when possible; writes and evictions go to both
+ * tiers and are broadcast so that other nodes drop their L1 copy.
+ *
+ * Misses through {@link #get(Object, Callable)} ({@code @Cacheable(sync = true)}) are kept
+ * from stampeding the database: concurrent misses for a key on one node share a single load,
+ * and across nodes only the holder of a {@link CacheLoadLease} loads while the others wait for
+ * its value to appear in L2. Hot entries this node loaded are refreshed in the background
+ * shortly before their L2 entry expires (XFetch), so they never miss at all. What a refresh
+ * needs (load time, L2 expiry) is kept per key beyond the L1 entry, which expires much sooner.
+ * A refresh reads from the primary and only replaces the L2 entry it started from, so it never
+ * overwrites a newer {@code put} or brings back an evicted entry.
+ *
+ * {@link #getAll} and {@link #putAllIfAbsent} serve batch lookups in a fixed number of Redis
+ * round trips whatever the number of keys, when the L2 is a Redis cache.
+ */
+public class TwoLevelCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCache.class);
+    private static final long LEASE_POLL_MS = 20;
+
+    /**
+     * How misses are loaded. A null lease keeps coalescing node-local, a null TTL function
+     * or {@code earlyRefreshBeta <= 0} disables early refresh. The ticker must be the one the
+     * L1 cache uses.
+     */
+    public record LoadSettings(CacheLoadLease lease, Duration leaseWait, double earlyRefreshBeta,
+                               RedisCacheWriter.TtlFunction remoteTtl, Executor refreshExecutor, Ticker ticker) {
+        static final LoadSettings LOCAL_ONLY = new LoadSettings(null, Duration.ZERO, 0, null, Runnable::run);
+
+        public LoadSettings(CacheLoadLease lease, Duration leaseWait, double earlyRefreshBeta,
+                            RedisCacheWriter.TtlFunction remoteTtl, Executor refreshExecutor) {
+            this(lease, leaseWait, earlyRefreshBeta, remoteTtl, refreshExecutor, Ticker.systemTicker());
+        }
+    }
+
+    // What XFetch needs about an entry this node loaded: how long the load took and when L2 expires
+    record LoadStamp(long loadNanos, long expiresAtNanos) {
+
+        // Refresh with a probability that rises as expiry nears, sooner for entries that are slow to load
+        boolean refreshDue(double beta, long nowNanos) {
+            if (beta <= 0) {
+                return false;
+            }
+            double gap = loadNanos * beta * -Math.log(ThreadLocalRandom.current().nextDouble());
+            return nowNanos + gap >= expiresAtNanos;
+        }
+    }
+
+    // L1 entry of a value this node loaded
+    static final class LoadedValue extends SimpleValueWrapper {
+        private final LoadStamp stamp;
+
+        LoadedValue(Object value, LoadStamp stamp) {
+            super(value);
+            this.stamp = stamp;
+        }
+    }
+
+    // Stamps live until their L2 entry expires, not just as long as the L1 entry
+    private static final class StampExpiry implements Expiry<String, LoadStamp> {
+        @Override
+        public long expireAfterCreate(String key, LoadStamp stamp, long currentTime) {
+            return Math.max(0, stamp.expiresAtNanos() - currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, LoadStamp stamp, long currentTime, long currentDuration) {
+            return Math.max(0, stamp.expiresAtNanos() - currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, LoadStamp stamp, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local;
+    private final Cache remote;
+    private final TwoLevelCacheManager cacheManager;
+    private final LoadSettings loadSettings;
+    private final RedisCacheBulkOperations bulk;  // null: per-key L2 calls
+    private final com.github.benmanes.caffeine.cache.Cache<String, LoadStamp> loadStamps;
+    private final ConcurrentMap<String, CompletableFuture<ValueWrapper>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder leaseWaits = new LongAdder();
+    private final LongAdder earlyRefreshes = new LongAdder();
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local,
+                         Cache remote, TwoLevelCacheManager cacheManager) {
+        this(name, local, remote, cacheManager, LoadSettings.LOCAL_ONLY);
+    }
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local,
+                         Cache remote, TwoLevelCacheManager cacheManager, LoadSettings loadSettings) {
+        this(name, local, remote, cacheManager, loadSettings, null);
+    }
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local,
+                         Cache remote, TwoLevelCacheManager cacheManager, LoadSettings loadSettings,
+                         RedisCacheBulkOperations bulk) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.cacheManager = cacheManager;
+        this.loadSettings = loadSettings;
+        this.bulk = bulk;
+        this.loadStamps = Caffeine.newBuilder()
+                .maximumSize(local.policy().eviction().map(Policy.Eviction::getMaximum).orElse(10_000L))
+                .expireAfter(new StampExpiry())
+                .ticker(loadSettings.ticker())
+                .build();
+    }
+
+    // L1 keys are normalised to strings so they match the keys carried by invalidation messages
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper wrapper = local.getIfPresent(localKey);
+        if (wrapper != null) {
+            localHits.increment();
+            return wrapper;
+        }
+        wrapper = remote.get(key);
+        if (wrapper != null) {
+            remoteHits.increment();
+            wrapper = promote(localKey, wrapper);
+        } else {
+            misses.increment();
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        ValueWrapper wrapper = local.getIfPresent(localKey);
+        if (wrapper != null) {
+            localHits.increment();
+            if (wrapper instanceof LoadedValue loaded
+                    && loaded.stamp.refreshDue(loadSettings.earlyRefreshBeta(), loadSettings.ticker().read())) {
+                refreshEarly(key, localKey, wrapper, valueLoader);
+            }
+            return (T) wrapper.get();
+        }
+
+        // ✅ Single flight: the first miss loads, concurrent misses for the same key wait for its result
+        CompletableFuture<ValueWrapper> flight = new CompletableFuture<>();
+        CompletableFuture<ValueWrapper> existing = inFlight.putIfAbsent(localKey, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return (T) join(existing).get();
+        }
+        try {
+            wrapper = local.getIfPresent(localKey);  // a flight may have finished between our miss and putIfAbsent
+            if (wrapper != null) {
+                localHits.increment();
+            } else {
+                wrapper = loadThrough(key, localKey, valueLoader);
+            }
+            flight.complete(wrapper);
+            return (T) wrapper.get();
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey, flight);
+        }
+    }
+
+    private static ValueWrapper join(CompletableFuture<ValueWrapper> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    // L2, then the database - the latter only while holding the lease, or once waiting for its holder gave up
+    private ValueWrapper loadThrough(Object key, String localKey, Callable<?> valueLoader) {
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null) {
+            remoteHits.increment();
+            return promote(localKey, wrapper);
+        }
+        CacheLoadLease lease = loadSettings.lease();
+        String leaseName = name + "::" + localKey;
+        boolean leased = lease == null || lease.tryAcquire(leaseName);
+        if (!leased) {
+            leaseWaits.increment();
+            wrapper = awaitRemote(key, leaseName);
+            if (wrapper != null) {
+                remoteHits.increment();
+                return promote(localKey, wrapper);
+            }
+            leased = lease.tryAcquire(leaseName);
+        }
+        try {
+            misses.increment();
+            return loadFromSource(key, localKey, valueLoader);
+        } finally {
+            if (leased && lease != null) {
+                lease.release(leaseName);
+            }
+        }
+    }
+
+    // Null once the lease is gone without a value (holder failed) or leaseWait ran out
+    private ValueWrapper awaitRemote(Object key, String leaseName) {
+        long deadline = System.nanoTime() + loadSettings.leaseWait().toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(LEASE_POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            ValueWrapper wrapper = remote.get(key);
+            if (wrapper != null) {
+                return wrapper;
+            }
+            if (!loadSettings.lease().isHeld(leaseName)) {
+                return remote.get(key);
+            }
+        }
+        return null;
+    }
+
+    // An L2 entry this node loaded keeps its stamp after the L1 copy expired, so it can still be refreshed early
+    private ValueWrapper promote(String localKey, ValueWrapper wrapper) {
+        LoadStamp stamp = loadStamps.getIfPresent(localKey);
+        ValueWrapper promoted = stamp != null ? new LoadedValue(wrapper.get(), stamp) : wrapper;
+        local.put(localKey, promoted);
+        return promoted;
+    }
+
+    private ValueWrapper loadFromSource(Object key, String localKey, Callable<?> valueLoader) {
+        long start = loadSettings.ticker().read();
+        Object value = call(key, valueLoader);
+        long loadNanos = loadSettings.ticker().read() - start;
+        // A @CachePut that landed while we were reading the database holds the newer value
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing != null) {
+            local.put(localKey, existing);
+            return existing;
+        }
+        ValueWrapper wrapper = stamped(localKey, value, loadNanos, expiresAt(key, value, start + loadNanos));
+        local.put(localKey, wrapper);
+        return wrapper;
+    }
+
+    // ✅ Reload from the primary (a lagging replica could hand back an older row than L2 holds) and write it
+    // back only over the entry the refresh started from: a put or evict that landed meanwhile wins
+    private ValueWrapper refreshFromSource(Object key, String localKey, ValueWrapper current, Callable<?> valueLoader) {
+        long start = loadSettings.ticker().read();
+        Object value = ReplicaRoutingDataSource.onPrimary(() -> call(key, valueLoader));
+        long loadNanos = loadSettings.ticker().read() - start;
+        if (!replaceRemote(key, current.get(), value)) {
+            // The L1 copy is on its way out; stop refreshing it
+            loadStamps.invalidate(localKey);
+            local.asMap().replace(localKey, current, new SimpleValueWrapper(current.get()));
+            return current;
+        }
+        ValueWrapper wrapper = stamped(localKey, value, loadNanos, expiresAt(key, value, start + loadNanos));
+        local.asMap().replace(localKey, current, wrapper);
+        return wrapper;
+    }
+
+    // Atomic in Redis; a best-effort compare for other L2 caches
+    private boolean replaceRemote(Object key, Object expected, Object value) {
+        if (bulk != null) {
+            return bulk.replaceIfUnchanged(key, expected, value);
+        }
+        ValueWrapper existing = remote.get(key);
+        if (existing == null || !Objects.equals(existing.get(), expected)) {
+            return false;
+        }
+        remote.put(key, value);
+        return true;
+    }
+
+    private ValueWrapper stamped(String localKey, Object value, long loadNanos, long expiresAtNanos) {
+        if (expiresAtNanos == 0) {
+            loadStamps.invalidate(localKey);
+            return new SimpleValueWrapper(value);
+        }
+        LoadStamp stamp = new LoadStamp(loadNanos, expiresAtNanos);
+        loadStamps.put(localKey, stamp);
+        return new LoadedValue(value, stamp);
+    }
+
+    private static Object call(Object key, Callable<?> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    // 0 = unknown or never
+    private long expiresAt(Object key, Object value, long writtenAtNanos) {
+        RedisCacheWriter.TtlFunction ttlFunction = loadSettings.remoteTtl();
+        if (ttlFunction == null) {
+            return 0;
+        }
+        Duration ttl = ttlFunction.getTimeToLive(key, value);
+        return ttl == null || ttl.isZero() || ttl.isNegative() ? 0 : writtenAtNanos + ttl.toNanos();
+    }
+
+    // ✅ Reload a hot entry in the background while callers keep getting the current value.
+    // Only the lease holder refreshes; other nodes keep their copy until it expires.
+    private void refreshEarly(Object key, String localKey, ValueWrapper current, Callable<?> valueLoader) {
+        CompletableFuture<ValueWrapper> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(localKey, flight) != null) {
+            return;
+        }
+        try {
+            loadSettings.refreshExecutor().execute(() -> {
+                CacheLoadLease lease = loadSettings.lease();
+                String leaseName = name + "::" + localKey;
+                try {
+                    if (lease != null && !lease.tryAcquire(leaseName)) {
+                        flight.complete(current);
+                        return;
+                    }
+                    try {
+                        earlyRefreshes.increment();
+                        flight.complete(refreshFromSource(key, localKey, current, valueLoader));
+                    } finally {
+                        if (lease != null) {
+                            lease.release(leaseName);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Early refresh of {}::{} failed - {}", name, localKey, e.getMessage());
+                    flight.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(localKey, flight);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(localKey, flight);
+            flight.complete(current);
+        }
+    }
+
+    // ✅ Values found for the keys, in key order: L1 first, then a single MGET for the rest. Absent keys are misses
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        List<Object> keyList = List.copyOf(keys);
+        Object[] values = new Object[keyList.size()];
+        List<Integer> remoteIndexes = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            ValueWrapper wrapper = local.getIfPresent(localKey(keyList.get(i)));
+            if (wrapper != null) {
+                localHits.increment();
+                values[i] = wrapper.get();
+            } else {
+                remoteIndexes.add(i);
+            }
+        }
+        if (!remoteIndexes.isEmpty()) {
+            List<Object> remoteKeys = remoteIndexes.stream().map(keyList::get).toList();
+            List<Object> remoteValues = bulk != null ? bulk.multiGet(remoteKeys) : remoteKeys.stream()
+                    .map(remote::get)
+                    .map(wrapper -> wrapper == null ? null : wrapper.get())
+                    .toList();
+            for (int i = 0; i < remoteKeys.size(); i++) {
+                Object value = remoteValues.get(i);
+                if (value != null) {
+                    remoteHits.increment();
+                    local.put(localKey(remoteKeys.get(i)), new SimpleValueWrapper(value));
+                    values[remoteIndexes.get(i)] = value;
+                } else {
+                    misses.increment();
+                }
+            }
+        }
+        Map<Object, Object> found = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                found.put(keyList.get(i), values[i]);
+            }
+        }
+        return found;
+    }
+
+    // ✅ Write back values loaded after a getAll miss in one pipeline. Like a single miss, an entry that
+    // appeared meanwhile is kept, and nothing is broadcast (other nodes had nothing cached to drop).
+    // Only the values that were actually written go to L1; where another writer won, L1 would hold an older copy
+    public void putAllIfAbsent(Map<?, ?> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        Set<Object> written;
+        if (bulk != null) {
+            written = bulk.putAllIfAbsent(values);
+        } else {
+            written = new HashSet<>();
+            values.forEach((key, value) -> {
+                if (remote.putIfAbsent(key, value) == null) {
+                    written.add(key);
+                }
+            });
+        }
+        values.forEach((key, value) -> {
+            if (written.contains(key)) {
+                local.put(localKey(key), new SimpleValueWrapper(value));
+            }
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        puts.increment();
+        remote.put(key, value);
+        loadStamps.invalidate(localKey(key));
+        local.put(localKey(key), new SimpleValueWrapper(value));
+        cacheManager.publishInvalidation(name, localKey(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictions.increment();
+        remote.evict(key);
+        loadStamps.invalidate(localKey(key));
+        local.invalidate(localKey(key));
+        cacheManager.publishInvalidation(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        loadStamps.invalidateAll();
+        local.invalidateAll();
+        cacheManager.publishInvalidation(name, null);
+    }
+
+    long localHitCount() {
+        return localHits.sum();
+    }
+
+    long remoteHitCount() {
+        return remoteHits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    long putCount() {
+        return puts.sum();
+    }
+
+    long evictionCount() {
+        return evictions.sum();
+    }
+
+    long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    long leaseWaitCount() {
+        return leaseWaits.sum();
+    }
+
+    long earlyRefreshCount() {
+        return earlyRefreshes.sum();
+    }
+
+    long localSize() {
+        return local.estimatedSize();
+    }
+
+    // ✅ Called for invalidations received from other nodes - only touches L1
+    void evictLocal(String key) {
+        if (key == null) {
+            loadStamps.invalidateAll();
+            local.invalidateAll();
+        } else {
+            loadStamps.invalidate(key);
+            local.invalidate(key);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.AddressBook.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Wraps every cache of the Redis {@link CacheManager} in a {@link TwoLevelCache}.
+ * Local evictions are published on a Redis channel; messages from other nodes
+ * are applied to this node's L1 only.
+ *
+ * Message format: {@code <nodeId>|<cacheName>|<key>}, with an empty key meaning "clear".
+ *
+ * Caches are created lazily, so each one binds its own meters on creation rather than
+ * relying on Boot's startup-time cache metrics registrar. They share one lease and one
+ * virtual-thread executor for early refreshes.
+ */
+public class TwoLevelCacheManager implements CacheManager, MessageListener, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final CacheLoadLease loadLease;
+    private final Duration leaseWait;
+    private final double earlyRefreshBeta;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cache-refresh-", 0).factory());
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, StringRedisTemplate redisTemplate, String channel,
+                                long localMaxSize, Duration localTtl, CacheLoadLease loadLease, Duration leaseWait,
+                                double earlyRefreshBeta, MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.loadLease = loadLease;
+        this.leaseWait = leaseWait;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            throw new IllegalStateException("No remote cache configured for name: " + name);
+        }
+        // expireAfterWrite bounds staleness if an invalidation message is ever lost
+        com.github.benmanes.caffeine.cache.Cache<String, Cache.ValueWrapper> local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        // Early refresh needs to know when the L2 entry expires, which only a RedisCache can tell
+        TwoLevelCache.LoadSettings loadSettings = new TwoLevelCache.LoadSettings(loadLease, leaseWait, earlyRefreshBeta,
+                remote instanceof RedisCache redisCache ? redisCache.getCacheConfiguration().getTtlFunction() : null,
+                refreshExecutor);
+        TwoLevelCache cache = new TwoLevelCache(name, local, remote, this, loadSettings,
+                remote instanceof RedisCache redisCache ? new RedisCacheBulkOperations(redisTemplate, redisCache) : null);
+        new TwoLevelCacheMetrics(cache, Tags.of("cache.manager", "cacheManager")).bindTo(meterRegistry);
+        return cache;
+    }
+
+    void publishInvalidation(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + "|" + cacheName + "|" + (key == null ? "" : key));
+        } catch (RuntimeException e) {
+            // L1 entries on other nodes still expire via localTtl
+            logger.warn("Failed to publish cache invalidation for {}::{} - {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.evictLocal(parts[2].isEmpty() ? null : parts[2]);
+        }
+    }
+
+    @Override
+    public void close() {
+        refreshExecutor.shutdownNow();
+    }
+}
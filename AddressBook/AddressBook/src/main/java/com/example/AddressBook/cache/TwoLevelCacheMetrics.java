@@ -0,0 +1,74 @@
+package com.example.AddressBook.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Standard {@code cache.*} meters for a {@link TwoLevelCache}, plus
+ * {@code cache.tier.hits{tier=local|remote}} to show how much traffic L1 absorbs and
+ * {@code cache.loads.*} to show how many database loads stampede protection saved.
+ * Hits count both tiers; the size gauge reports L1 only.
+ */
+public class TwoLevelCacheMetrics extends CacheMeterBinder<TwoLevelCache> {
+
+    public TwoLevelCacheMetrics(TwoLevelCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? null : cache.localSize();
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? 0 : cache.localHitCount() + cache.remoteHitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? null : cache.missCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? null : cache.evictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? 0 : cache.putCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoLevelCache cache = getCache();
+        FunctionCounter.builder("cache.tier.hits", cache, TwoLevelCache::localHitCount)
+                .tags(getTagsWithCacheName()).tag("tier", "local")
+                .description("Hits served from the on-heap L1")
+                .register(registry);
+        FunctionCounter.builder("cache.tier.hits", cache, TwoLevelCache::remoteHitCount)
+                .tags(getTagsWithCacheName()).tag("tier", "remote")
+                .description("L1 misses served from Redis")
+                .register(registry);
+        FunctionCounter.builder("cache.loads.coalesced", cache, TwoLevelCache::coalescedCount)
+                .tags(getTagsWithCacheName())
+                .description("Misses that shared a load already in flight on this node")
+                .register(registry);
+        FunctionCounter.builder("cache.loads.lease.waits", cache, TwoLevelCache::leaseWaitCount)
+                .tags(getTagsWithCacheName())
+                .description("Misses that waited for another node's load instead of querying the database")
+                .register(registry);
+        FunctionCounter.builder("cache.loads.early.refreshes", cache, TwoLevelCache::earlyRefreshCount)
+                .tags(getTagsWithCacheName())
+                .description("Hot entries reloaded in the background before they expired")
+                .register(registry);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.AddressBook.codec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned binary format for cache values and AMQP payloads, several times smaller and cheaper
+ * to produce than JSON with type hints or Java serialization.
+ *
+ * Layout: {@code magic, type id, schema version, flags} followed by the type's fields. Payloads
+ * of at least {@code codec.compression-threshold} bytes are deflated when that saves space (flag
+ * bit 0, uncompressed length as a varint before the deflated bytes). The magic byte never starts
+ * a JSON document or a Java serialization stream, so readers tell the formats apart and old
+ * entries stay readable.
+ *
+ * With {@code codec.compact.enabled=false} nothing is written in this format but it is still
+ * read: deploy that way first, then enable once every node (the reactive API included) can read it.
+ */
+@Component
+public class CompactCodec {
+
+    public static final String CONTENT_TYPE = "application/x-addressbook-compact";
+    static final byte MAGIC = (byte) 0xC7;
+    static final int HEADER_SIZE = 4;
+    private static final int FLAG_DEFLATED = 1;
+
+    private final TypeCodec<?>[] codecsById;
+    private final List<TypeCodec<?>> codecs;
+    private final boolean enabled;
+    private final int compressionThreshold;
+
+    public CompactCodec(@Value("${codec.compact.enabled:true}") boolean enabled,
+                        @Value("${codec.compression-threshold:1024}") int compressionThreshold) {
+        this.codecs = ContactSchemas.ALL;
+        this.codecsById = new TypeCodec<?>[codecs.stream().mapToInt(TypeCodec::typeId).max().orElse(0) + 1];
+        for (TypeCodec<?> codec : codecs) {
+            codecsById[codec.typeId()] = codec;
+        }
+        this.enabled = enabled;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    // ✅ false for values the legacy serializers keep handling, and for everything while compact writes are off
+    public boolean supports(Object value) {
+        return enabled && codecFor(value) != null;
+    }
+
+    public static boolean isCompact(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_SIZE && bytes[0] == MAGIC;
+    }
+
+    @SuppressWarnings("unchecked")
+    public byte[] encode(Object value) {
+        TypeCodec<Object> codec = (TypeCodec<Object>) codecFor(value);
+        if (codec == null) {
+            throw new IllegalArgumentException("No compact schema for " + (value == null ? "null" : value.getClass().getName()));
+        }
+        CompactOutput out = new CompactOutput(128);
+        out.writeByte(MAGIC);
+        out.writeByte(codec.typeId());
+        out.writeByte(codec.version());
+        out.writeByte(0);
+        codec.write(value, out);
+        if (out.size() - HEADER_SIZE >= compressionThreshold) {
+            byte[] deflated = deflate(out);
+            if (deflated != null) {
+                return deflated;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public Object decode(byte[] bytes) {
+        if (!isCompact(bytes)) {
+            throw new IllegalArgumentException("Not a compact value");
+        }
+        int typeId = bytes[1] & 0xFF;
+        int version = bytes[2] & 0xFF;
+        int flags = bytes[3] & 0xFF;
+        TypeCodec<?> codec = typeId < codecsById.length ? codecsById[typeId] : null;
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown compact type " + typeId);
+        }
+        if ((flags & ~FLAG_DEFLATED) != 0) {
+            throw new IllegalArgumentException("Unknown compact flags " + flags);
+        }
+        CompactInput in = new CompactInput(bytes, HEADER_SIZE, bytes.length);
+        if ((flags & FLAG_DEFLATED) != 0) {
+            in = inflate(bytes, in);
+        }
+        return codec.read(in, version);
+    }
+
+    private TypeCodec<?> codecFor(Object value) {
+        if (value == null) {
+            return null;
+        }
+        for (TypeCodec<?> codec : codecs) {
+            if (codec.accepts(value)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    // null when deflating does not pay for its own length prefix
+    private static byte[] deflate(CompactOutput out) {
+        int length = out.size() - HEADER_SIZE;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(out.buffer(), HEADER_SIZE, length);
+            deflater.finish();
+            CompactOutput compressed = new CompactOutput(length / 2 + 16);
+            compressed.writeBytes(out.buffer(), 0, HEADER_SIZE);
+            compressed.setByte(3, FLAG_DEFLATED);
+            compressed.writeVarLong(length);
+            byte[] chunk = new byte[Math.min(length, 8192)];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                compressed.writeBytes(chunk, 0, n);
+                if (compressed.size() >= out.size()) {
+                    return null;
+                }
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static CompactInput inflate(byte[] bytes, CompactInput header) {
+        long length = header.readVarLong();
+        if (length < 0 || length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Corrupt compact value");
+        }
+        byte[] inflated = new byte[(int) length];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes, header.position(), bytes.length - header.position());
+            int n = 0;
+            while (n < inflated.length && !inflater.finished()) {
+                int read = inflater.inflate(inflated, n, inflated.length - n);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += read;
+            }
+            if (n != inflated.length) {
+                throw new IllegalArgumentException("Corrupt compact value");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compact value", e);
+        } finally {
+            inflater.end();
+        }
+        return new CompactInput(inflated, 0, inflated.length);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.AddressBook.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Reads the primitives written by {@link CompactOutput}. Malformed or truncated input fails
+ * with {@link IllegalArgumentException}, never with an out-of-bounds read.
+ */
+public final class CompactInput {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    public CompactInput(byte[] buffer, int offset, int limit) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    public int readByte() {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in compact value");
+    }
+
+    public long readZigZagLong() {
+        long encoded = readVarLong();
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    public int readLength() {
+        long length = readVarLong();
+        if (length < 0 || length > limit - position) {
+            throw new IllegalArgumentException("Truncated compact value");
+        }
+        return (int) length;
+    }
+
+    public String readString() {
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public Instant readInstant() {
+        long seconds = readZigZagLong();
+        return Instant.ofEpochSecond(seconds, readVarLong());
+    }
+
+    // ✅ The record's fields as their own input; anything a newer writer appended is skipped with it
+    public CompactInput readRecord() {
+        int length = readLength();
+        CompactInput record = new CompactInput(buffer, position, position + length);
+        position += length;
+        return record;
+    }
+
+    int position() {
+        return position;
+    }
+
+    private void require(int bytes) {
+        if (position + bytes > limit) {
+            throw new IllegalArgumentException("Truncated compact value");
+        }
+    }
+}
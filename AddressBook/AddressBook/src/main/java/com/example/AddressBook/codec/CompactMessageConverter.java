@@ -0,0 +1,49 @@
+package com.example.AddressBook.codec;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+import java.util.List;
+
+/**
+ * Writes event payloads in the compact format under {@link CompactCodec#CONTENT_TYPE}.
+ * Messages with any other content type (queued before the switch, or from a publisher that
+ * has not been upgraded) go through {@link SimpleMessageConverter}, which only deserializes
+ * the application's own events.
+ */
+public class CompactMessageConverter implements MessageConverter {
+
+    private final CompactCodec codec;
+    private final SimpleMessageConverter fallback = new SimpleMessageConverter();
+
+    public CompactMessageConverter(CompactCodec codec) {
+        this.codec = codec;
+        fallback.setAllowedListPatterns(List.of("com.example.AddressBook.messaging.*", "java.lang.*", "java.time.*"));
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) throws MessageConversionException {
+        if (!codec.supports(object)) {
+            return fallback.toMessage(object, messageProperties);
+        }
+        byte[] body = codec.encode(object);
+        messageProperties.setContentType(CompactCodec.CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        if (!CompactCodec.CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+            return fallback.fromMessage(message);
+        }
+        try {
+            return codec.decode(message.getBody());
+        } catch (IllegalArgumentException e) {
+            throw new MessageConversionException("Cannot read compact message", e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.AddressBook.codec;
+
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+// ✅ Compact format for contacts, JSON (with type hints) for everything else and for entries written before the switch
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private final CompactCodec codec;
+    private final RedisSerializer<Object> fallback = new GenericJackson2JsonRedisSerializer();
+
+    public CompactRedisSerializer(CompactCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        return codec.supports(value) ? codec.encode(value) : fallback.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (!CompactCodec.isCompact(bytes)) {
+            return fallback.deserialize(bytes);
+        }
+        try {
+            return codec.decode(bytes);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot read compact cache value", e);
+        }
+    }
+}
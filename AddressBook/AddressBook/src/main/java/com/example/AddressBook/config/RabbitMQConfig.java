@@ -1,8 +1,21 @@
 package com.example.AddressBook.config;
 
+import com.example.AddressBook.codec.CompactCodec;
+import com.example.AddressBook.codec.CompactMessageConverter;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.BatchingRabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.RabbitTemplateConfigurer;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.TaskScheduler;
 
 @Configuration
 public class RabbitMQConfig {
@@ -33,8 +46,84 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(contactQueue).to(exchange).with(CONTACT_ROUTING_KEY);
     }
 
+    // ✅ Per-node, auto-deleted queue so every node sees every contact event (keeps local search indexes in sync)
+    @Bean
+    public Queue contactSearchQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("contact.search."));
+    }
+
+    @Bean
+    public Binding contactSearchBinding(Queue contactSearchQueue, DirectExchange exchange) {
+        return BindingBuilder.bind(contactSearchQueue).to(exchange).with(CONTACT_ROUTING_KEY);
+    }
+
     @Bean
     public Binding userBinding(Queue userQueue, DirectExchange exchange) {
         return BindingBuilder.bind(userQueue).to(exchange).with(USER_ROUTING_KEY);
     }
+
+    // ✅ Picked up by Boot for the primary template and the listener factories; compact events, Java serialization only for legacy messages
+    @Bean
+    public MessageConverter compactMessageConverter(CompactCodec codec) {
+        return new CompactMessageConverter(codec);
+    }
+
+    // ✅ Batch consumer for user events; starts from spring.rabbitmq.listener.simple.* and overrides the knobs below
+    @Bean
+    public SimpleRabbitListenerContainerFactory userListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            @Value("${messaging.user.concurrency:1}") int concurrency,
+            @Value("${messaging.user.max-concurrency:4}") int maxConcurrency,
+            @Value("${messaging.user.prefetch:100}") int prefetch,
+            @Value("${messaging.user.batch-size:20}") int batchSize) {
+        return batchListenerFactory(configurer, connectionFactory, concurrency, maxConcurrency, prefetch, batchSize);
+    }
+
+    // ✅ Batch consumer for contact events (producer batches are split back into individual events)
+    @Bean
+    public SimpleRabbitListenerContainerFactory contactListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            @Value("${messaging.contact.concurrency:1}") int concurrency,
+            @Value("${messaging.contact.max-concurrency:4}") int maxConcurrency,
+            @Value("${messaging.contact.prefetch:250}") int prefetch,
+            @Value("${messaging.contact.batch-size:100}") int batchSize) {
+        return batchListenerFactory(configurer, connectionFactory, concurrency, maxConcurrency, prefetch, batchSize);
+    }
+
+    // ✅ Declared explicitly: the batching template below would otherwise make Boot skip its default RabbitTemplate
+    @Bean
+    @Primary
+    public RabbitTemplate rabbitTemplate(RabbitTemplateConfigurer configurer, ConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate();
+        configurer.configure(template, connectionFactory);
+        return template;
+    }
+
+    // ✅ Producer-side batching for contact events: flushes at batchSize messages, bufferLimit bytes or timeout
+    @Bean
+    public BatchingRabbitTemplate contactBatchingRabbitTemplate(
+            ConnectionFactory connectionFactory, TaskScheduler taskScheduler, MessageConverter messageConverter,
+            @Value("${messaging.contact.publish.batch-size:100}") int batchSize,
+            @Value("${messaging.contact.publish.buffer-limit:65536}") int bufferLimit,
+            @Value("${messaging.contact.publish.timeout-ms:50}") long timeoutMs) {
+        BatchingRabbitTemplate template = new BatchingRabbitTemplate(connectionFactory,
+                new SimpleBatchingStrategy(batchSize, bufferLimit, timeoutMs), taskScheduler);
+        template.setUsePublisherConnection(true);  // keep publishing off the consumers' connection
+        template.setMessageConverter(messageConverter);  // not built by Boot's configurer, so set it here
+        return template;
+    }
+
+    private static SimpleRabbitListenerContainerFactory batchListenerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            int concurrency, int maxConcurrency, int prefetch, int batchSize) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        factory.setPrefetchCount(prefetch);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        return factory;
+    }
 }
@@ -1,33 +1,98 @@
 package com.example.AddressBook.config;
 
+import com.example.AddressBook.cache.CacheLoadLease;
+import com.example.AddressBook.cache.TwoLevelCacheManager;
+import com.example.AddressBook.codec.CompactCodec;
+import com.example.AddressBook.codec.CompactRedisSerializer;
+import com.example.AddressBook.security.TokenRevocationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+
 @Configuration
 @EnableCaching  // Enable caching in Spring Boot
 public class RedisConfig {
 
+    public static final String CACHE_INVALIDATION_CHANNEL = "addressbook.cache.invalidation";
+
+    // ✅ "contacts" keys are namespaced per owner, so one user's writes never evict another's entries.
+    // The SpEL keys in AddressBookService build the same strings.
+    public static String contactKey(Long ownerId, Long id) {
+        return ownerId + ":" + id;
+    }
+
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
-        return new LettuceConnectionFactory();  // Using Lettuce as Redis client
+    public RedisConnectionFactory redisConnectionFactory(@Value("${spring.data.redis.host:localhost}") String host,
+                                                         @Value("${spring.data.redis.port:6379}") int port) {
+        return new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));  // Using Lettuce as Redis client
     }
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory, CompactCodec codec) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
         // Set key serializer as String
         template.setKeySerializer(new StringRedisSerializer());
-        // Set value serializer to JSON
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        // Set value serializer to the compact format (JSON for other types)
+        template.setValueSerializer(new CompactRedisSerializer(codec));
 
         return template;
     }
+
+    // ✅ L2: shared Redis cache
+    @Bean
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory, CompactCodec codec,
+                                               @Value("${cache.redis.entry-ttl:PT30M}") Duration entryTtl) {
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(entryTtl)
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new CompactRedisSerializer(codec)));
+        return RedisCacheManager.builder(connectionFactory).cacheDefaults(config).build();
+    }
+
+    // ✅ L1 + L2: near cache used by @Cacheable/@CacheEvict, with single-flight misses, a per-key
+    // reload lease shared by all nodes and probabilistic early refresh of hot entries
+    @Bean
+    @Primary
+    public TwoLevelCacheManager cacheManager(RedisCacheManager redisCacheManager,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             @Value("${cache.local.max-size:10000}") long localMaxSize,
+                                             @Value("${cache.local.ttl:PT60S}") Duration localTtl,
+                                             @Value("${cache.load.lease-ttl:PT5S}") Duration leaseTtl,
+                                             @Value("${cache.load.lease-wait:PT2S}") Duration leaseWait,
+                                             @Value("${cache.load.early-refresh-beta:1.0}") double earlyRefreshBeta,
+                                             MeterRegistry meterRegistry) {
+        return new TwoLevelCacheManager(redisCacheManager, stringRedisTemplate, CACHE_INVALIDATION_CHANNEL,
+                localMaxSize, localTtl, new CacheLoadLease(stringRedisTemplate, leaseTtl), leaseWait, earlyRefreshBeta,
+                meterRegistry);
+    }
+
+    // ✅ Receives L1 invalidations and token revocations published by other nodes (one subscriber connection)
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationContainer(RedisConnectionFactory connectionFactory,
+                                                                    TwoLevelCacheManager cacheManager,
+                                                                    TokenRevocationService tokenRevocationService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(CACHE_INVALIDATION_CHANNEL));
+        container.addMessageListener(tokenRevocationService, new ChannelTopic(TokenRevocationService.REVOCATION_CHANNEL));
+        return container;
+    }
 }
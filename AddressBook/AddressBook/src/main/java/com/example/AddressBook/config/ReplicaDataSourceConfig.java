@@ -0,0 +1,80 @@
+package com.example.AddressBook.config;
+
+import com.example.AddressBook.datasource.ReadYourWrites;
+import com.example.AddressBook.datasource.ReplicaLagMonitor;
+import com.example.AddressBook.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// ✅ Read/write splitting, only when datasource.replica.urls is set; without it Spring Boot's single pool is used as before
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public ReadYourWrites readYourWrites(StringRedisTemplate stringRedisTemplate,
+                                         @Value("${datasource.replica.read-your-writes-window:PT5S}") Duration window) {
+        return new ReadYourWrites(stringRedisTemplate, window);
+    }
+
+    // ✅ Primary pool from spring.datasource.*, one read-only pool per replica URL; all take spring.datasource.hikari.*
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(DataSourceProperties properties, Environment environment,
+                                                      ReadYourWrites readYourWrites,
+                                                      @Value("${datasource.replica.urls}") List<String> replicaUrls,
+                                                      @Value("${datasource.replica.username:#{null}}") String replicaUsername,
+                                                      @Value("${datasource.replica.password:#{null}}") String replicaPassword,
+                                                      @Value("${datasource.replica.max-lag:PT5S}") Duration maxLag) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = pool(properties, binder, "primary");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = pool(properties, binder, "replica-" + i);
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            if (replicaUsername != null) {
+                replica.setUsername(replicaUsername);
+                replica.setPassword(replicaPassword);
+            }
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWrites, maxLag);  // pools closed with it
+    }
+
+    // ✅ The DataSource JPA and JdbcTemplate use: connections are fetched on the first statement, once the
+    // transaction's read-only flag is known
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource routingDataSource, MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(routingDataSource, meterRegistry);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Binder binder, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        return pool;
+    }
+}
@@ -1,65 +1,215 @@
 package com.example.AddressBook.controller;
 
 import com.example.AddressBook.dto.AddressBookDTO;
+import com.example.AddressBook.dto.BatchGetRequestDTO;
+import com.example.AddressBook.dto.BatchGetResultDTO;
+import com.example.AddressBook.dto.BulkImportResultDTO;
+import com.example.AddressBook.dto.ContactPageDTO;
+import com.example.AddressBook.dto.ContactSearchResultDTO;
 import com.example.AddressBook.model.AddressBook;
+import com.example.AddressBook.search.ContactSearchService;
+import com.example.AddressBook.security.AuthenticatedUser;
 import com.example.AddressBook.service.AddressBookService;
+import com.example.AddressBook.service.ContactBatchService;
+import com.example.AddressBook.service.ContactExportService;
+import com.example.AddressBook.service.ContactImportService;
 import jakarta.transaction.Transactional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/contacts")
 @PreAuthorize("hasAuthority('ROLE_USER')")  // Ensure only authenticated users can access
+// ✅ Every endpoint works on the caller's own contacts only
 public class AddressBookController {
 
-    private final AddressBookService addressBookService;
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
-    public AddressBookController(AddressBookService addressBookService) {
+    private final AddressBookService addressBookService;
+    private final ContactImportService contactImportService;
+    private final ContactExportService contactExportService;
+    private final ContactSearchService contactSearchService;
+    private final ContactBatchService contactBatchService;
+
+    public AddressBookController(AddressBookService addressBookService, ContactImportService contactImportService,
+                                 ContactExportService contactExportService, ContactSearchService contactSearchService,
+                                 ContactBatchService contactBatchService) {
         this.addressBookService = addressBookService;
+        this.contactImportService = contactImportService;
+        this.contactExportService = contactExportService;
+        this.contactSearchService = contactSearchService;
+        this.contactBatchService = contactBatchService;
     }
 
-    // ✅ Get all contacts (Cached)
+    // ✅ Get a page of contacts (keyset pagination: pass nextCursor back as 'after'); 304 if the page is unchanged
     @GetMapping
-    public List<AddressBook> getAllContacts() {
-        return addressBookService.getAllContacts();
+    public ContactPageDTO getAllContacts(@AuthenticationPrincipal AuthenticatedUser user,
+                                         @RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) Integer limit,
+                                         WebRequest request) {
+        ContactPageDTO page = addressBookService.getContactsPage(user.getId(), after, limit);
+        return request.checkNotModified(pageETag(page)) ? null : page;
+    }
+
+    // ✅ Stream every contact as newline-delimited JSON (Accept: application/x-ndjson)
+    @GetMapping(produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllContacts(@AuthenticationPrincipal AuthenticatedUser user) {
+        StreamingResponseBody body = out -> contactExportService.export(user.getId(), out, ContactExportService.Format.NDJSON, false);
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    // ✅ Download a full dump as CSV or NDJSON, optionally gzipped
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportContacts(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(name = "format", defaultValue = "csv") String formatName,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ContactExportService.Format format = exportFormat(formatName);
+        String fileName = "contacts." + format.name().toLowerCase() + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : format == ContactExportService.Format.CSV ? MediaType.parseMediaType("text/csv") : APPLICATION_NDJSON;
+
+        StreamingResponseBody body = out -> contactExportService.export(user.getId(), out, format, gzip);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(contentType)
+                .body(body);
+    }
+
+    private static ContactExportService.Format exportFormat(String name) {
+        try {
+            return ContactExportService.Format.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format: " + name + "!");
+        }
+    }
+
+    // ✅ Type-ahead search over name, email and phone (prefix, substring and one-typo matches, ranked)
+    @GetMapping("/search")
+    public ContactSearchResultDTO searchContacts(@AuthenticationPrincipal AuthenticatedUser user,
+                                                 @RequestParam String q,
+                                                 @RequestParam(defaultValue = "0") int page,
+                                                 @RequestParam(defaultValue = "20") int size) {
+        return contactSearchService.search(user.getId(), q, page, size);
+    }
+
+    // ✅ Exact lookup by phone or by name (served from the Redis projection)
+    @GetMapping("/lookup")
+    public List<AddressBook> lookupContacts(@AuthenticationPrincipal AuthenticatedUser user,
+                                            @RequestParam(required = false) String name,
+                                            @RequestParam(required = false) String phone) {
+        return addressBookService.findContacts(user.getId(), name, phone);
     }
 
-    // ✅ Get a single contact by ID (Cached)
+    // ✅ Get a single contact by ID (Cached); 304 when If-None-Match still holds its version
     @GetMapping("/{id}")
-    public AddressBook getContactById(@PathVariable Long id) {
-        return addressBookService.getContactById(id);
+    public AddressBook getContactById(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id,
+                                      WebRequest request) {
+        AddressBook contact = addressBookService.getContactById(user.getId(), id);
+        return contact.getVersion() != null && request.checkNotModified(contactETag(contact)) ? null : contact;
+    }
+
+    // ✅ Get many contacts by ID in one call (one Redis MGET, one query for the misses)
+    @PostMapping("/batch-get")
+    public BatchGetResultDTO batchGetContacts(@AuthenticationPrincipal AuthenticatedUser user,
+                                              @RequestBody BatchGetRequestDTO request) {
+        return contactBatchService.getContactsByIds(user.getId(), request.getIds());
     }
 
     // ✅ Add a new contact (Cache Evicted)
 
 
     @PostMapping
-    public ResponseEntity<AddressBook> addContact(@RequestBody AddressBookDTO contactDTO) {
+    public ResponseEntity<AddressBook> addContact(@AuthenticationPrincipal AuthenticatedUser user,
+                                                  @RequestBody AddressBookDTO contactDTO) {
         AddressBook contact = new AddressBook();
         contact.setName(contactDTO.getName());
         contact.setPhone(contactDTO.getPhone());
         contact.setEmail(contactDTO.getEmail());  // ✅ Ensure Email is Set
 
-        AddressBook savedContact = addressBookService.addContact(contact);
-        return ResponseEntity.ok(savedContact);
+        AddressBook savedContact = addressBookService.addContact(user.getId(), contact);
+        return ResponseEntity.ok().eTag(contactETag(savedContact)).body(savedContact);
     }
 
 
 
 
-    // ✅ Update a contact (Cache Evicted)
+    // ✅ Bulk import a JSON array of contacts (streamed, chunked, per-row errors)
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResultDTO> bulkImportJson(@AuthenticationPrincipal AuthenticatedUser user,
+                                                              InputStream body) throws IOException {
+        return ResponseEntity.ok(contactImportService.importJson(user.getId(), body));
+    }
+
+    // ✅ Bulk import CSV rows: name,email,phone
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportResultDTO> bulkImportCsv(@AuthenticationPrincipal AuthenticatedUser user,
+                                                             InputStream body) throws IOException {
+        return ResponseEntity.ok(contactImportService.importCsv(user.getId(), new InputStreamReader(body, StandardCharsets.UTF_8)));
+    }
+
+    // ✅ Update a contact (Cache Evicted); 412 if If-Match (or the version in the body) is no longer current
     @PutMapping("/{id}")
-    public AddressBook updateContact(@PathVariable Long id, @RequestBody AddressBook contact) {
-        return addressBookService.updateContact(id, contact);
+    public ResponseEntity<AddressBook> updateContact(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                     @RequestBody AddressBook contact) {
+        if (ifMatch != null) {
+            contact.setVersion(ifMatchVersion(ifMatch));
+        }
+        AddressBook savedContact = addressBookService.updateContact(user.getId(), id, contact);
+        return ResponseEntity.ok().eTag(contactETag(savedContact)).body(savedContact);
     }
 
-    // ✅ Delete a contact (Cache Evicted)
+    // ✅ Delete a contact (Cache Evicted); 412 if If-Match is no longer current
     @DeleteMapping("/{id}")
-    public void deleteContact(@PathVariable Long id) {
-        addressBookService.deleteContact(id);
+    public void deleteContact(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable Long id,
+                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        addressBookService.deleteContact(user.getId(), id, ifMatch == null ? null : ifMatchVersion(ifMatch));
+    }
+
+    // A contact's ETag is its version, so a poll costs one cache read and no body
+    private static String contactETag(AddressBook contact) {
+        return "\"" + contact.getVersion() + "\"";
+    }
+
+    // Changes whenever a contact on the page is added, removed or updated
+    private static String pageETag(ContactPageDTO page) {
+        long hash = 0xcbf29ce484222325L;
+        for (AddressBook contact : page.getContacts()) {
+            hash = (hash ^ contact.getId()) * 0x100000001b3L;
+            hash = (hash ^ (contact.getVersion() == null ? -1L : contact.getVersion())) * 0x100000001b3L;
+        }
+        return "\"p" + Long.toHexString(hash) + "\"";
+    }
+
+    // "*" only requires the contact to exist (null = no version check); anything but one strong contact ETag can never match
+    private static Long ifMatchVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.valueOf(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // falls through to 412
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match the current contact!");
     }
 }
@@ -1,5 +1,6 @@
 package com.example.AddressBook.controller;
 
+import com.example.AddressBook.dto.AuthTokensDTO;
 import com.example.AddressBook.dto.UserDTO;
 import com.example.AddressBook.service.AuthService;
 import com.example.AddressBook.security.JwtUtil;
@@ -13,7 +14,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -28,9 +28,6 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
-    @Autowired
-    private PasswordEncoder passwordEncoder;
-
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody UserDTO userDTO) {
         log.info("Received registration request for: {}", userDTO.getUsername());
@@ -57,15 +54,39 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Username and password are required"));
         }
 
-        String token = authService.authenticate(userDTO.getUsername(), userDTO.getPassword());
+        AuthTokensDTO tokens = authService.authenticate(userDTO.getUsername(), userDTO.getPassword());
 
-        if (token == null) {
+        if (tokens == null) {
             log.warn("Login failed for user: {}", userDTO.getUsername());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid username or password"));
         }
 
         log.info("Login successful for user: {}", userDTO.getUsername());
-        return ResponseEntity.ok(Map.of("token", token));
+        return ResponseEntity.ok(tokens);
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh tokens", description = "Exchanges a refresh token for a new access token and refresh token.")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> request) {
+        String refreshToken = request.get("refreshToken");
+
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            log.warn("Refresh request without a refresh token");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Refresh token is required"));
+        }
+
+        return ResponseEntity.ok(authService.refresh(refreshToken));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revokes the bearer access token and the given refresh token.")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                    @RequestBody(required = false) Map<String, String> request) {
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        String refreshToken = request == null ? null : request.get("refreshToken");
+
+        String response = authService.logout(accessToken, refreshToken);
+        return ResponseEntity.ok(Map.of("message", response));
     }
 
     @PostMapping("/forgot-password")
@@ -94,8 +115,8 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Token and new password are required"));
         }
 
-        log.info("Processing password reset request for token: {}", token);
-        String response = authService.resetPassword(token, passwordEncoder.encode(newPassword));
+        log.info("Processing password reset request");
+        String response = authService.resetPassword(token, newPassword);
         return ResponseEntity.ok(Map.of("message", response));
     }
 }
@@ -0,0 +1,75 @@
+package com.example.AddressBook.datasource;
+
+import com.example.AddressBook.security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+/**
+ * Keeps a user's reads on the primary for a short window after that user's own write, so
+ * replica lag never hides a contact they just saved from their next request.
+ *
+ * The marker lives in Redis so it holds whichever node serves the next request, plus a local
+ * copy that spares the round trip on the node that took the write. Requests without an
+ * authenticated user (registration, login) have nothing to key on and are not tracked.
+ */
+public class ReadYourWrites {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadYourWrites.class);
+    static final String KEY_PREFIX = "datasource:recent-write:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration window;
+    private final Cache<Long, Boolean> localWriters;
+
+    public ReadYourWrites(StringRedisTemplate redisTemplate, Duration window) {
+        this.redisTemplate = redisTemplate;
+        this.window = window;
+        this.localWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    // ✅ Called when a read-write transaction takes its connection
+    public void recordWrite() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return;
+        }
+        localWriters.put(userId, Boolean.TRUE);
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + userId, "1", window);
+        } catch (DataAccessException e) {
+            // Other nodes may read this user's write from a replica until it has replicated
+            logger.warn("Failed to record recent write of user {} - {}", userId, e.getMessage());
+        }
+    }
+
+    public boolean mustReadPrimary() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        if (localWriters.getIfPresent(userId) != null) {
+            return true;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + userId));
+        } catch (DataAccessException e) {
+            return true;  // cannot tell: the primary is always consistent
+        }
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user ? user.getId() : null;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.AddressBook.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures replica lag with a heartbeat row: every node writes its clock to {@code replica_heartbeat}
+ * on the primary, then reads the row back from each replica. Lag is the age of what the replica
+ * holds, so it includes the heartbeat interval and needs no replication-specific privileges or SQL.
+ * A replica that cannot be read is dropped until a probe succeeds again.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    static final String TABLE = "replica_heartbeat";
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile boolean tableCreated;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, MeterRegistry meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.primary = jdbcTemplate(routingDataSource.getPrimary());
+        routingDataSource.getReplicas().forEach((name, dataSource) -> {
+            replicas.put(name, jdbcTemplate(dataSource));
+            Gauge.builder("datasource.replica.lag", routingDataSource, routing -> lagSeconds(routing, name))
+                    .tag("replica", name)
+                    .description("Age of the newest heartbeat the replica holds; NaN while it cannot be read")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        });
+    }
+
+    // ✅ Off the scheduler thread, which the outbox relay shares: a replica that hangs must not stall it
+    @Scheduled(fixedDelayString = "${datasource.replica.heartbeat-interval-ms:1000}")
+    public void check() {
+        if (checking.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("replica-lag-monitor").start(() -> {
+                try {
+                    heartbeat();
+                    probe();
+                } finally {
+                    checking.set(false);
+                }
+            });
+        }
+    }
+
+    void heartbeat() {
+        long now = System.currentTimeMillis();
+        try {
+            if (!tableCreated) {
+                primary.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " (id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+                tableCreated = true;
+            }
+            // GREATEST: nodes share the row, and one with a slow clock must not move it back
+            if (primary.update("UPDATE " + TABLE + " SET beat_millis = GREATEST(beat_millis, ?) WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO " + TABLE + " (id, beat_millis) VALUES (1, ?)", now);
+            }
+        } catch (DuplicateKeyException e) {
+            // Another node inserted the row first; the next beat updates it
+        } catch (DataAccessException e) {
+            logger.warn("Failed to write replica heartbeat - {}", e.getMessage());
+        }
+    }
+
+    void probe() {
+        replicas.forEach((name, replica) -> {
+            try {
+                Long beat = replica.queryForObject("SELECT beat_millis FROM " + TABLE + " WHERE id = 1", Long.class);
+                boolean wasUsable = routingDataSource.isUsable(name);
+                routingDataSource.recordHeartbeat(name, beat);
+                if (!wasUsable && routingDataSource.isUsable(name)) {
+                    logger.info("Replica {} is serving reads (lag {} ms)", name, routingDataSource.lagMillis(name));
+                }
+            } catch (DataAccessException e) {
+                if (routingDataSource.markUnavailable(name)) {
+                    logger.warn("Replica {} unavailable, its reads go to the primary - {}", name, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private static double lagSeconds(ReplicaRoutingDataSource routing, String name) {
+        long lag = routing.lagMillis(name);
+        return lag == Long.MAX_VALUE ? Double.NaN : lag / 1000.0;
+    }
+
+    private static JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+        return template;
+    }
+}
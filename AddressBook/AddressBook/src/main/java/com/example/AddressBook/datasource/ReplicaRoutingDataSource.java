@@ -0,0 +1,130 @@
+package com.example.AddressBook.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to a replica and everything else to the primary.
+ *
+ * A replica is used only while the newest heartbeat it has replicated (see {@link ReplicaLagMonitor})
+ * is at most {@code maxLag} old; with none in range reads fall back to the primary. Users who wrote
+ * within the read-your-writes window are kept on the primary too (see {@link ReadYourWrites}).
+ *
+ * The key is read when a connection is fetched, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager
+ * opens its connection before the read-only flag is bound to the thread.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = ThreadLocal.withInitial(() -> false);
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaNames;
+    private final ReadYourWrites readYourWrites;
+    private final long maxLagMillis;
+    private final Map<String, Long> replicatedBeats = new ConcurrentHashMap<>();  // newest heartbeat seen per replica
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWrites readYourWrites,
+                                    Duration maxLag) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaNames = List.copyOf(replicas.keySet());
+        this.readYourWrites = readYourWrites;
+        this.maxLagMillis = maxLag.toMillis();
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    // ✅ Run work that must see the latest committed rows on the primary, even if it reads in a read-only transaction.
+    // Call it outside any transaction: a connection already bound to the thread is not switched
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(true);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_ONLY.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.recordWrite();
+            }
+            return PRIMARY;
+        }
+        if (PRIMARY_ONLY.get() || readYourWrites.mustReadPrimary()) {
+            return PRIMARY;
+        }
+        List<String> usable = new ArrayList<>(replicaNames.size());
+        for (String name : replicaNames) {
+            if (isUsable(name)) {
+                usable.add(name);
+            }
+        }
+        return usable.isEmpty() ? PRIMARY : usable.get(Math.floorMod(next.getAndIncrement(), usable.size()));
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    // ✅ Called by the lag monitor with the heartbeat it read from the replica
+    public void recordHeartbeat(String replica, long beatMillis) {
+        replicatedBeats.merge(replica, beatMillis, Math::max);
+    }
+
+    // ✅ True if the replica was usable until now
+    public boolean markUnavailable(String replica) {
+        boolean wasUsable = isUsable(replica);
+        replicatedBeats.remove(replica);
+        return wasUsable;
+    }
+
+    // Ages on its own, so a replica whose probes stop is dropped once its last heartbeat is maxLag old
+    public long lagMillis(String replica) {
+        Long beat = replicatedBeats.get(replica);
+        return beat == null ? Long.MAX_VALUE : Math.max(0, System.currentTimeMillis() - beat);
+    }
+
+    public boolean isUsable(String replica) {
+        return lagMillis(replica) <= maxLagMillis;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
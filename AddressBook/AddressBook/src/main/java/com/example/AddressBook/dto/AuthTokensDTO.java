@@ -0,0 +1,14 @@
+package com.example.AddressBook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AuthTokensDTO {
+    private String token;         // short-lived access token (JWT)
+    private String refreshToken;  // opaque, single use; exchange at /api/auth/refresh
+    private long expiresIn;       // access token lifetime in seconds
+}
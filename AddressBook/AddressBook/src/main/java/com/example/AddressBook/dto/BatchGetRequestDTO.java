@@ -0,0 +1,14 @@
+package com.example.AddressBook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchGetRequestDTO {
+    private List<Long> ids;
+}
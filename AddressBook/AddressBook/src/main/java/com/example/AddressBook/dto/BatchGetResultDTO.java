@@ -0,0 +1,16 @@
+package com.example.AddressBook.dto;
+
+import com.example.AddressBook.model.AddressBook;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchGetResultDTO {
+    private List<AddressBook> contacts;  // in request order, duplicates dropped
+    private List<Long> notFound;         // ids that do not exist or belong to another user
+}
@@ -0,0 +1,24 @@
+package com.example.AddressBook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportResultDTO {
+    private int imported;
+    private int rejected;
+    private List<RowError> errors;  // capped, see ContactImportService.MAX_REPORTED_ERRORS
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        private int row;  // 1-based, header line not counted
+        private String message;
+    }
+}
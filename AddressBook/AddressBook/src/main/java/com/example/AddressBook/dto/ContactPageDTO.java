@@ -0,0 +1,16 @@
+package com.example.AddressBook.dto;
+
+import com.example.AddressBook.model.AddressBook;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactPageDTO {
+    private List<AddressBook> contacts;
+    private Long nextCursor;  // null when there are no more rows
+}
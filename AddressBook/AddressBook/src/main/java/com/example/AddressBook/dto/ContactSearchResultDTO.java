@@ -0,0 +1,18 @@
+package com.example.AddressBook.dto;
+
+import com.example.AddressBook.model.AddressBook;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactSearchResultDTO {
+    private List<AddressBook> contacts;  // best match first
+    private int page;
+    private int size;
+    private int total;
+}
@@ -0,0 +1,44 @@
+package com.example.AddressBook.messaging;
+
+import com.example.AddressBook.model.AddressBook;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+
+// ✅ Typed payload for contact.queue (replaces the free-text "Contact Added: ..." strings)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactChangedEvent implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;  // pinned: AddressBook-reactive publishes the same class
+
+    public enum ChangeType { CREATED, UPDATED, DELETED, IMPORTED }
+
+    private ChangeType type;
+    private Long contactId;     // null for IMPORTED
+    private Long ownerId;       // users.id of the owning account
+    private String name;
+    private String email;
+    private String phone;
+    private int count;          // contacts covered by this event; > 1 only for IMPORTED
+    private Instant occurredAt;
+
+    public static ContactChangedEvent of(ChangeType type, AddressBook contact) {
+        return new ContactChangedEvent(type, contact.getId(), contact.getOwnerId(), contact.getName(), contact.getEmail(),
+                contact.getPhone(), 1, Instant.now());
+    }
+
+    public static ContactChangedEvent deleted(Long ownerId, Long contactId) {
+        return new ContactChangedEvent(ChangeType.DELETED, contactId, ownerId, null, null, null, 1, Instant.now());
+    }
+
+    public static ContactChangedEvent imported(Long ownerId, int count) {
+        return new ContactChangedEvent(ChangeType.IMPORTED, null, ownerId, null, null, null, count, Instant.now());
+    }
+}
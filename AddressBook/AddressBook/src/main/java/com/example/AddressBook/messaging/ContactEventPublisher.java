@@ -0,0 +1,77 @@
+package com.example.AddressBook.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.BatchingRabbitTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static com.example.AddressBook.config.RabbitMQConfig.*;
+
+/**
+ * Publishes contact change events through a {@link BatchingRabbitTemplate}, so many events
+ * share one broker write. Events raised inside a transaction are sent only after it commits.
+ * Publisher confirms arrive asynchronously on the template's confirm callback and require
+ * {@code spring.rabbitmq.publisher-confirm-type=correlated}.
+ */
+@Service
+public class ContactEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactEventPublisher.class);
+    private static final String EVENT_TAG = "CONTACT_CHANGED";
+    private final BatchingRabbitTemplate batchingRabbitTemplate;
+    private final Timer publishTimer;
+    private final Counter failures;
+    private final Counter nacks;
+
+    public ContactEventPublisher(BatchingRabbitTemplate contactBatchingRabbitTemplate, MeterRegistry meterRegistry) {
+        this.batchingRabbitTemplate = contactBatchingRabbitTemplate;
+        this.publishTimer = Timer.builder("messaging.publish")
+                .description("Time to hand an event to the broker client")
+                .tag("event", EVENT_TAG)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.failures = Counter.builder("messaging.publish.failures").tag("event", EVENT_TAG).register(meterRegistry);
+        this.nacks = Counter.builder("messaging.publish.nacks").tag("event", EVENT_TAG).register(meterRegistry);
+        this.batchingRabbitTemplate.setConfirmCallback((correlation, ack, cause) -> {
+            if (!ack) {
+                nacks.increment();
+                logger.error("Broker nacked a contact event batch - {}", cause);
+            }
+        });
+    }
+
+    public void publish(ContactChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(ContactChangedEvent event) {
+        try {
+            // Buffered by the batching strategy; returns without a broker round trip
+            publishTimer.record(() -> batchingRabbitTemplate.convertAndSend(EXCHANGE_NAME, CONTACT_ROUTING_KEY, event));
+        } catch (AmqpException e) {
+            failures.increment();
+            logger.error("Failed to publish {} event for contact {} - {}", event.getType(), event.getContactId(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        batchingRabbitTemplate.flush();
+    }
+}
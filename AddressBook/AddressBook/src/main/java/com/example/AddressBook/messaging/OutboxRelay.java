@@ -0,0 +1,82 @@
+package com.example.AddressBook.messaging;
+
+import com.example.AddressBook.model.OutboxEvent;
+import com.example.AddressBook.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// ✅ Moves committed outbox rows to RabbitMQ (at-least-once); rows stay put while the broker is down
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final int MAX_ATTEMPTS = 10;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitMQPublisher rabbitMQPublisher;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, RabbitMQPublisher rabbitMQPublisher,
+                       ObjectMapper objectMapper,
+                       @Value("${outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${outbox.retention:P1D}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitMQPublisher = rabbitMQPublisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    @Transactional
+    public void relay() {
+        List<OutboxEvent> events = outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(Limit.of(batchSize));
+        for (OutboxEvent event : events) {
+            try {
+                dispatch(event);
+                event.setPublishedAt(Instant.now());
+            } catch (AmqpException e) {
+                event.setAttempts(event.getAttempts() + 1);
+                logger.warn("Broker unavailable, outbox event {} will be retried - {}", event.getId(), e.getMessage());
+                break;  // keep ordering; try again on the next tick
+            } catch (RuntimeException | JsonProcessingException e) {
+                event.setAttempts(event.getAttempts() + 1);
+                logger.error("Cannot relay outbox event {} of type {}", event.getId(), event.getEventType(), e);
+                if (event.getAttempts() >= MAX_ATTEMPTS) {
+                    event.setPublishedAt(Instant.now());  // poison event: stop retrying, leave it for inspection until purge
+                }
+            }
+        }
+    }
+
+    @Scheduled(cron = "${outbox.purge.cron:0 0 * * * *}")
+    @Transactional
+    public void purgePublished() {
+        int deleted = outboxEventRepository.deletePublishedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("Purged {} published outbox events", deleted);
+        }
+    }
+
+    private void dispatch(OutboxEvent event) throws JsonProcessingException {
+        switch (event.getEventType()) {
+            case UserRegisteredEvent.TYPE -> rabbitMQPublisher.publishUserRegistration(
+                    objectMapper.readValue(event.getPayload(), UserRegisteredEvent.class));
+            default -> throw new IllegalStateException("Unknown outbox event type: " + event.getEventType());
+        }
+    }
+}
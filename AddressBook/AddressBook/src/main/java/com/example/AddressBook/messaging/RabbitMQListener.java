@@ -1,13 +1,15 @@
 package com.example.AddressBook.messaging;
 
-import com.example.AddressBook.model.AddressBook;
-import com.example.AddressBook.model.User;
+import com.example.AddressBook.projection.ContactProjectionService;
+import com.example.AddressBook.search.ContactSearchService;
 import com.example.AddressBook.service.EmailService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 import static com.example.AddressBook.config.RabbitMQConfig.*;
 
 @Component
@@ -15,19 +17,31 @@ public class RabbitMQListener {
 
     private static final Logger logger = LoggerFactory.getLogger(RabbitMQListener.class);
     private final EmailService emailService;
+    private final ContactSearchService contactSearchService;
+    private final ContactProjectionService contactProjectionService;
 
-    public RabbitMQListener(EmailService emailService) {
+    public RabbitMQListener(EmailService emailService, ContactSearchService contactSearchService,
+                            ContactProjectionService contactProjectionService) {
         this.emailService = emailService;
+        this.contactSearchService = contactSearchService;
+        this.contactProjectionService = contactProjectionService;
+    }
+
+    @RabbitListener(queues = CONTACT_QUEUE, containerFactory = "contactListenerContainerFactory")
+    public void handleContactEvents(List<ContactChangedEvent> events) {
+        logger.info("Received message batch: {} Contact Event(s)", events.size());
+        events.forEach(event -> logger.debug("Contact {} - id={} count={}", event.getType(), event.getContactId(), event.getCount()));
+        contactProjectionService.apply(events);  // shared queue: each batch updates the Redis projection once
     }
 
-    @RabbitListener(queues = CONTACT_QUEUE)
-    public void handleNewContact(AddressBook contact) {
-        logger.info("Received message: New Contact Added - {}", contact.getName());
+    @RabbitListener(queues = "#{contactSearchQueue.name}", containerFactory = "contactListenerContainerFactory")
+    public void handleContactEventsForSearch(List<ContactChangedEvent> events) {
+        contactSearchService.apply(events);
     }
 
-    @RabbitListener(queues = USER_QUEUE)
-    public void handleNewUserRegistration(User user) {
-        logger.info("Received message: New User Registered - {}", user.getEmail());
-        emailService.sendWelcomeEmail(user.getEmail());
+    @RabbitListener(queues = USER_QUEUE, containerFactory = "userListenerContainerFactory")
+    public void handleNewUserRegistrations(List<UserRegisteredEvent> events) {
+        logger.info("Received message batch: {} New User(s) Registered", events.size());
+        events.forEach(event -> emailService.sendWelcomeEmail(event.getEmail()));
     }
 }
@@ -1,7 +1,7 @@
 package com.example.AddressBook.messaging;
 
-import com.example.AddressBook.model.AddressBook;
-import com.example.AddressBook.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -14,18 +14,19 @@ public class RabbitMQPublisher {
 
     private static final Logger logger = LoggerFactory.getLogger(RabbitMQPublisher.class);
     private final RabbitTemplate rabbitTemplate;
+    private final Timer userRegistrationTimer;
 
-    public RabbitMQPublisher(RabbitTemplate rabbitTemplate) {
+    public RabbitMQPublisher(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry) {
         this.rabbitTemplate = rabbitTemplate;
+        this.userRegistrationTimer = Timer.builder("messaging.publish")
+                .description("Time to hand an event to the broker client")
+                .tag("event", UserRegisteredEvent.TYPE)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
-    public void publishNewContact(AddressBook contact) {
-        logger.info("Publishing event to RabbitMQ: New Contact Added - {}", contact.getName());
-        rabbitTemplate.convertAndSend(EXCHANGE_NAME, CONTACT_ROUTING_KEY, contact);
-    }
-
-    public void publishUserRegistration(User user) {
-        logger.info("Publishing event to RabbitMQ: New User Registered - {}", user.getEmail());
-        rabbitTemplate.convertAndSend(EXCHANGE_NAME, USER_ROUTING_KEY, user);
+    public void publishUserRegistration(UserRegisteredEvent event) {
+        logger.info("Publishing event to RabbitMQ: New User Registered - {}", event.getEmail());
+        userRegistrationTimer.record(() -> rabbitTemplate.convertAndSend(EXCHANGE_NAME, USER_ROUTING_KEY, event));
     }
 }
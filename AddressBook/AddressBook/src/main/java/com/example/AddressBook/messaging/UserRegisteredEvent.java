@@ -0,0 +1,18 @@
+package com.example.AddressBook.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// ✅ Published instead of the User entity so no password hash leaves the service
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserRegisteredEvent implements Serializable {
+    public static final String TYPE = "USER_REGISTERED";
+
+    private String username;
+    private String email;
+}
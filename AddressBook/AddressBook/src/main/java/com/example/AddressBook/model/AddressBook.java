@@ -7,6 +7,10 @@ import lombok.*;
 import java.io.Serializable;
 
 @Entity  // ✅ JPA Entity for MySQL
+@Table(name = "address_book", indexes = {
+        // Every query is scoped to one owner: lists and keyset pages seek on (owner_id, id)
+        @Index(name = "idx_address_book_owner_id", columnList = "owner_id, id")
+})
 @Data  // ✅ Lombok generates Getters, Setters, toString, equals, and hashCode
 @NoArgsConstructor  // ✅ Generates a no-arg constructor
 @AllArgsConstructor  // ✅ Generates an all-args constructor
@@ -14,6 +18,8 @@ public class AddressBook implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;  // users.id of the owning account
     @NotBlank
     private String name;
     @NotBlank
@@ -21,5 +27,8 @@ public class AddressBook implements Serializable {
 
     @NotBlank
     private String phone;
+
+    @Version
+    private Long version;  // bumped on every update; the contact's ETag, and the If-Match check on PUT/DELETE
 }
 
@@ -3,15 +3,31 @@ package com.example.AddressBook.model;
 import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.redis.core.RedisHash;
+import org.springframework.data.redis.core.index.Indexed;
 import java.io.Serializable;
 
-@RedisHash("AddressBook")  // ✅ Redis Storage
+@RedisHash("AddressBook")  // ✅ Redis Storage: read-side projection of address_book, see ContactProjectionService
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class AddressBookCache implements Serializable {
     @Id
     private String id;
-    private String name;
+    @Indexed
+    private Long ownerId;
+    @Indexed
+    private String name;  // exact-match lookups; fuzzy matching is the search index's job
+    private String email;
+    @Indexed
     private String phone;
+    private Long version;
+
+    public static AddressBookCache of(AddressBook contact) {
+        return new AddressBookCache(String.valueOf(contact.getId()), contact.getOwnerId(), contact.getName(),
+                contact.getEmail(), contact.getPhone(), contact.getVersion());
+    }
+
+    public AddressBook toContact() {
+        return new AddressBook(Long.valueOf(id), ownerId, name, email, phone, version);
+    }
 }
@@ -0,0 +1,39 @@
+package com.example.AddressBook.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// ✅ Transactional outbox row: written in the same transaction as the business change,
+// published to RabbitMQ afterwards by OutboxRelay
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "outbox_event", indexes = @Index(name = "idx_outbox_unpublished", columnList = "published_at, id"))
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String eventType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;  // JSON
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant publishedAt;
+
+    private int attempts;
+
+    public OutboxEvent(String eventType, String payload) {
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+}
@@ -3,15 +3,29 @@ package com.example.AddressBook.model;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
+// ✅ One row per issued reset link; 'token' holds the SHA-256 of the emailed value, never the value itself
 @Entity
+@Table(name = "password_reset_token", indexes = {
+        @Index(name = "uk_password_reset_token", columnList = "token", unique = true),
+        @Index(name = "idx_password_reset_created", columnList = "created_at"),
+        @Index(name = "idx_password_reset_email_created", columnList = "email, created_at")
+})
 public class PasswordResetToken {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(nullable = false, length = 64)
     private String token;
+
+    @Column(nullable = false)
     private String email;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
     private LocalDateTime expiryDate;
 
     public boolean isExpired() {
@@ -28,6 +42,9 @@ public class PasswordResetToken {
     public String getEmail() { return email; }
     public void setEmail(String email) { this.email = email; }
 
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
     public LocalDateTime getExpiryDate() { return expiryDate; }
     public void setExpiryDate(LocalDateTime expiryDate) { this.expiryDate = expiryDate; }
 }
@@ -0,0 +1,448 @@
+package com.example.AddressBook.projection;
+
+import com.example.AddressBook.cache.CacheLoadLease;
+import com.example.AddressBook.datasource.ReplicaRoutingDataSource;
+import com.example.AddressBook.messaging.ContactChangedEvent;
+import com.example.AddressBook.model.AddressBook;
+import com.example.AddressBook.model.AddressBookCache;
+import com.example.AddressBook.repository.AddressBookCacheRepository;
+import com.example.AddressBook.repository.AddressBookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Redis projection of the address_book table that answers owner-scoped reads without MySQL.
+ *
+ * Rows are {@link AddressBookCache} hashes saved through {@link AddressBookCacheRepository},
+ * which maintains the {@code @Indexed} owner, name and phone sets. Next to them, one sorted set
+ * per owner (score = contact id) orders that owner's contacts for keyset pages, and one global
+ * sorted set lets a rebuild reconcile any id range.
+ *
+ * The projection follows the events on contact.queue. An event is only a hint: the rows it
+ * names are re-read from MySQL, so late or reordered events never write stale data. Single
+ * contact writes are also applied right after their commit, so the writer's next page or
+ * lookup already sees them. A rebuild
+ * copies the table in parallel id ranges and drops ids MySQL no longer has. It runs at startup
+ * while the projection is not ready, and nightly. Reads are answered only while the ready
+ * marker is set. A failed update clears it, so reads go to MySQL until a rebuild repairs it.
+ */
+@Service
+public class ContactProjectionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactProjectionService.class);
+    static final String OWNER_INDEX_PREFIX = "contacts:projection:owner:";
+    static final String ALL_IDS_KEY = "contacts:projection:ids";
+    static final String READY_KEY = "contacts:projection:ready";
+    private static final String HASH_PREFIX = "AddressBook:";  // keyspace of @RedisHash("AddressBook")
+    private static final String REBUILD_LEASE = "contacts:projection:rebuild";
+    private static final long READY_RECHECK_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final AddressBookRepository addressBookRepository;
+    private final AddressBookCacheRepository projectionRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final CacheLoadLease rebuildLease;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int parallelism;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Set<String> repairing = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean ready;
+    private volatile long readyCheckedAt;
+    private volatile boolean stalePending;  // the ready marker still has to be cleared in Redis
+
+    public ContactProjectionService(AddressBookRepository addressBookRepository,
+                                    AddressBookCacheRepository projectionRepository,
+                                    StringRedisTemplate redisTemplate,
+                                    @Value("${contacts.projection.enabled:true}") boolean enabled,
+                                    @Value("${contacts.projection.chunk-size:1000}") int chunkSize,
+                                    @Value("${contacts.projection.parallelism:4}") int parallelism,
+                                    @Value("${contacts.projection.rebuild-lease:PT30M}") Duration rebuildLease) {
+        this.addressBookRepository = addressBookRepository;
+        this.projectionRepository = projectionRepository;
+        this.redisTemplate = redisTemplate;
+        this.rebuildLease = new CacheLoadLease(redisTemplate, rebuildLease);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.readyCheckedAt = System.nanoTime() - READY_RECHECK_NANOS;  // first read checks Redis
+    }
+
+    // ✅ Keyset page from the owner's sorted set plus one pipelined HGETALL; empty when MySQL has to answer
+    public Optional<List<AddressBook>> findPage(Long ownerId, long after, int size) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        try {
+            Set<String> ids = redisTemplate.opsForZSet().rangeByScore(OWNER_INDEX_PREFIX + ownerId, after + 1,
+                    Double.POSITIVE_INFINITY, 0, size);
+            if (ids == null || ids.isEmpty()) {
+                return Optional.of(List.of());
+            }
+            // The repository's findAllById would read the hashes one round trip at a time
+            List<String> idList = new ArrayList<>(ids);
+            List<Object> hashes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                idList.forEach(id -> connection.hashCommands().hGetAll(bytes(HASH_PREFIX + id)));
+                return null;
+            });
+            List<AddressBook> contacts = new ArrayList<>(idList.size());
+            List<String> missing = new ArrayList<>();
+            for (int i = 0; i < idList.size(); i++) {
+                @SuppressWarnings("unchecked")
+                Map<String, String> fields = (Map<String, String>) hashes.get(i);
+                if (fields == null || fields.isEmpty()) {
+                    missing.add(idList.get(i));
+                } else {
+                    contacts.add(toContact(idList.get(i), fields));
+                }
+            }
+            if (!missing.isEmpty()) {
+                // Sorted set and hashes disagree: either an upsert is rewriting the hash (saveAll deletes it first)
+                // or a removal did not know the owner. A read cannot tell which, so MySQL answers and a repair
+                // that checks MySQL decides
+                repairInBackground(ownerId, missing);
+                return Optional.empty();
+            }
+            return Optional.of(contacts);
+        } catch (DataAccessException e) {
+            logger.warn("Contact projection read failed for owner {} - {}", ownerId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // ✅ Exact match on phone or name through the @Indexed sets
+    public Optional<List<AddressBook>> findByPhone(Long ownerId, String phone) {
+        return find(ownerId, () -> projectionRepository.findByOwnerIdAndPhone(ownerId, phone));
+    }
+
+    public Optional<List<AddressBook>> findByName(Long ownerId, String name) {
+        return find(ownerId, () -> projectionRepository.findByOwnerIdAndName(ownerId, name));
+    }
+
+    private Optional<List<AddressBook>> find(Long ownerId, Supplier<List<AddressBookCache>> query) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(query.get().stream().map(AddressBookCache::toContact).toList());
+        } catch (DataAccessException e) {
+            logger.warn("Contact projection lookup failed for owner {} - {}", ownerId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // ✅ Called with each batch from contact.queue; never throws, so a broken Redis cannot wedge the queue
+    public void apply(List<ContactChangedEvent> events) {
+        if (!enabled) {
+            return;
+        }
+        Set<Long> contactIds = new LinkedHashSet<>();
+        Set<Long> importedOwners = new LinkedHashSet<>();
+        for (ContactChangedEvent event : events) {
+            if (event.getType() == ContactChangedEvent.ChangeType.IMPORTED) {
+                if (event.getOwnerId() != null) {
+                    importedOwners.add(event.getOwnerId());
+                }
+            } else if (event.getContactId() != null) {
+                contactIds.add(event.getContactId());
+            }
+        }
+        try {
+            if (!contactIds.isEmpty()) {
+                // The primary: a lagging replica would hand back the very rows the event says changed
+                List<AddressBook> current = ReplicaRoutingDataSource.onPrimary(() -> addressBookRepository.findAllById(contactIds));
+                upsert(current);
+                Set<Long> deleted = new HashSet<>(contactIds);
+                current.forEach(contact -> deleted.remove(contact.getId()));
+                remove(deleted);
+            }
+            // Imports only announce a count, so the owner's whole partition is copied and reconciled
+            for (Long ownerId : importedOwners) {
+                copy(OWNER_INDEX_PREFIX + ownerId, 0, Long.MAX_VALUE,
+                        after -> addressBookRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, after, Limit.of(chunkSize)));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Contact projection update failed, reads fall back to MySQL until the next rebuild - {}", e.getMessage());
+            markStale();
+        }
+    }
+
+    // ✅ Read-your-writes: the written row reaches the projection once its transaction commits, ahead of the event.
+    // The event that follows re-reads the row, which settles two updates whose after-commit calls ran out of order
+    public void upsertAfterCommit(AddressBook contact) {
+        afterCommit(contact.getId(), () -> upsert(List.of(contact)));
+    }
+
+    public void removeAfterCommit(Long contactId) {
+        afterCommit(contactId, () -> remove(List.of(contactId)));
+    }
+
+    private void afterCommit(Long contactId, Runnable update) {
+        if (!enabled) {
+            return;
+        }
+        Runnable guarded = () -> {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                logger.warn("Contact projection update for {} failed, reads fall back to MySQL until the next rebuild - {}",
+                        contactId, e.getMessage());
+                markStale();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guarded.run();
+                }
+            });
+        } else {
+            guarded.run();
+        }
+    }
+
+    // ✅ Rebuild on startup and whenever an update failed; off the scheduler thread, which the outbox relay shares
+    @Scheduled(initialDelayString = "${contacts.projection.check-initial-delay-ms:10000}",
+            fixedDelayString = "${contacts.projection.check-interval-ms:300000}")
+    public void rebuildIfNotReady() {
+        if (enabled && !refreshReady()) {
+            rebuildInBackground();
+        }
+    }
+
+    // ✅ Also repairs what a lost event, or a rebuild racing a write, left behind
+    @Scheduled(cron = "${contacts.projection.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        if (enabled) {
+            rebuildInBackground();
+        }
+    }
+
+    private void rebuildInBackground() {
+        if (rebuilding.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("contact-projection-rebuild").start(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    // ✅ Copy the whole table in parallel id ranges; one node at a time. True once the projection is ready
+    public boolean rebuild() {
+        if (!rebuildLease.tryAcquire(REBUILD_LEASE)) {
+            logger.info("Contact projection rebuild already running on another node");
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofVirtual().name("contact-projection-rebuild-", 0).factory());
+        try {
+            List<Future<Long>> ranges = new ArrayList<>();
+            for (long[] range : idRanges()) {
+                ranges.add(workers.submit(() -> copy(ALL_IDS_KEY, range[0], range[1],
+                        after -> addressBookRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(after, range[1],
+                                Limit.of(chunkSize)))));
+            }
+            long copied = 0;
+            for (Future<Long> range : ranges) {
+                copied += range.get();
+            }
+            markReady();
+            logger.info("Contact projection rebuilt: {} contacts in {} ms", copied, System.currentTimeMillis() - start);
+            return true;
+        } catch (ExecutionException | RuntimeException e) {
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            logger.warn("Contact projection rebuild failed - {}", cause.getMessage());
+            return false;  // the projection keeps its current readiness; the next check or the nightly run retries
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            workers.shutdownNow();  // stops the other ranges after a failure
+            workers.close();
+            rebuildLease.release(REBUILD_LEASE);
+        }
+    }
+
+    private void repairInBackground(Long ownerId, List<String> ids) {
+        List<String> claimed = ids.stream().filter(repairing::add).toList();  // concurrent pages share one repair
+        if (claimed.isEmpty()) {
+            return;
+        }
+        Thread.ofVirtual().name("contact-projection-repair").start(() -> {
+            try {
+                repair(ownerId, claimed);
+            } finally {
+                claimed.forEach(repairing::remove);
+            }
+        });
+    }
+
+    // ✅ Re-reads the ids from the primary: live rows get their hash back, only ids MySQL no longer has for this
+    // owner leave the owner's sorted set
+    void repair(Long ownerId, List<String> ids) {
+        try {
+            Set<Long> gone = new HashSet<>();
+            ids.forEach(id -> gone.add(Long.valueOf(id)));
+            List<AddressBook> current = ReplicaRoutingDataSource.onPrimary(() -> addressBookRepository.findAllById(gone));
+            upsert(current);
+            current.stream().filter(contact -> ownerId.equals(contact.getOwnerId())).forEach(contact -> gone.remove(contact.getId()));
+            if (!gone.isEmpty()) {
+                redisTemplate.opsForZSet().remove(OWNER_INDEX_PREFIX + ownerId, gone.stream().map(String::valueOf).toArray());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Contact projection repair for owner {} failed, reads fall back to MySQL until the next rebuild - {}",
+                    ownerId, e.getMessage());
+            markStale();
+        }
+    }
+
+    // (from, upTo] ranges covering every id; the last one is open-ended so ids above the current max are reconciled too
+    private List<long[]> idRanges() {
+        long maxId = addressBookRepository.findFirstByOrderByIdDesc().map(AddressBook::getId).orElse(0L);
+        int count = parallelism * 4;
+        long span = Math.max(chunkSize, maxId / count + 1);
+        List<long[]> ranges = new ArrayList<>();
+        for (long from = 0; from < maxId; from += span) {
+            ranges.add(new long[]{from, Math.min(from + span, maxId)});
+        }
+        if (ranges.isEmpty()) {
+            ranges.add(new long[]{0, Long.MAX_VALUE});
+        } else {
+            ranges.get(ranges.size() - 1)[1] = Long.MAX_VALUE;
+        }
+        return ranges;
+    }
+
+    // Keyset-copies (from, upTo] chunk by chunk, removing projected ids in each chunk's span that MySQL did not return
+    private long copy(String indexKey, long from, long upTo, LongFunction<List<AddressBook>> pageAfter) {
+        long copied = 0;
+        long after = from;
+        while (true) {
+            List<AddressBook> chunk = pageAfter.apply(after);
+            boolean last = chunk.size() < chunkSize;
+            long chunkEnd = last ? upTo : chunk.get(chunk.size() - 1).getId();
+            upsert(chunk);
+            Set<String> projected = redisTemplate.opsForZSet().rangeByScore(indexKey, after + 1, chunkEnd);
+            if (projected != null && !projected.isEmpty()) {
+                chunk.forEach(contact -> projected.remove(String.valueOf(contact.getId())));
+                remove(projected.stream().map(Long::valueOf).toList());
+            }
+            copied += chunk.size();
+            if (last) {
+                return copied;
+            }
+            after = chunkEnd;
+        }
+    }
+
+    private void upsert(List<AddressBook> contacts) {
+        if (contacts.isEmpty()) {
+            return;
+        }
+        projectionRepository.saveAll(contacts.stream().map(AddressBookCache::of).toList());
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (AddressBook contact : contacts) {
+                byte[] member = bytes(String.valueOf(contact.getId()));
+                connection.zSetCommands().zAdd(bytes(OWNER_INDEX_PREFIX + contact.getOwnerId()), contact.getId(), member);
+                connection.zSetCommands().zAdd(bytes(ALL_IDS_KEY), contact.getId(), member);
+            }
+            return null;
+        });
+    }
+
+    // Deletes are rare; each row is read first for the owner whose sorted set holds it
+    private void remove(Collection<Long> ids) {
+        for (Long id : ids) {
+            String key = String.valueOf(id);
+            projectionRepository.findById(key).ifPresent(row ->
+                    redisTemplate.opsForZSet().remove(OWNER_INDEX_PREFIX + row.getOwnerId(), key));
+            projectionRepository.deleteById(key);
+            redisTemplate.opsForZSet().remove(ALL_IDS_KEY, key);
+        }
+    }
+
+    private boolean isReady() {
+        if (!enabled) {
+            return false;
+        }
+        return System.nanoTime() - readyCheckedAt < READY_RECHECK_NANOS ? ready : refreshReady();
+    }
+
+    private boolean refreshReady() {
+        if (stalePending) {
+            markStale();
+            return false;
+        }
+        try {
+            ready = Boolean.TRUE.equals(redisTemplate.hasKey(READY_KEY));
+        } catch (DataAccessException e) {
+            ready = false;
+        }
+        readyCheckedAt = System.nanoTime();
+        return ready;
+    }
+
+    private void markReady() {
+        redisTemplate.opsForValue().set(READY_KEY, String.valueOf(System.currentTimeMillis()));
+        ready = true;
+        readyCheckedAt = System.nanoTime();
+    }
+
+    private void markStale() {
+        ready = false;
+        readyCheckedAt = System.nanoTime();
+        try {
+            redisTemplate.delete(READY_KEY);
+            stalePending = false;
+        } catch (DataAccessException e) {
+            stalePending = true;  // retried on the next readiness check
+        }
+    }
+
+    private static AddressBook toContact(String id, Map<String, String> fields) {
+        return new AddressBook(Long.valueOf(id), parseLong(fields.get("ownerId")), fields.get("name"),
+                fields.get("email"), fields.get("phone"), parseLong(fields.get("version")));
+    }
+
+    private static Long parseLong(String value) {
+        return value == null ? null : Long.valueOf(value);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
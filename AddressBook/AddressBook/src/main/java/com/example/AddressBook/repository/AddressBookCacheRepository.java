@@ -4,6 +4,13 @@ import com.example.AddressBook.model.AddressBookCache;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AddressBookCacheRepository extends CrudRepository<AddressBookCache, String> {
+
+    // ✅ Served by intersecting the @Indexed sets (SINTER), no scan
+    List<AddressBookCache> findByOwnerIdAndPhone(Long ownerId, String phone);
+
+    List<AddressBookCache> findByOwnerIdAndName(Long ownerId, String name);
 }
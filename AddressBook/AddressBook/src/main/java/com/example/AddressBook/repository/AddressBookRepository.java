@@ -1,9 +1,54 @@
 package com.example.AddressBook.repository;
 
 import com.example.AddressBook.model.AddressBook;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface AddressBookRepository extends JpaRepository<AddressBook, Long> {
+
+    Optional<AddressBook> findByIdAndOwnerId(Long id, Long ownerId);
+
+    // ✅ Rank-ordered search hits and batch lookups are re-fetched by id, restricted to the caller.
+    // Read-only on its own, so callers outside a transaction still read from a replica
+    @Transactional(readOnly = true)
+    List<AddressBook> findByOwnerIdAndIdIn(Long ownerId, Collection<Long> ids);
+
+    // ✅ Keyset page within one owner's partition (served by the (owner_id, id) index)
+    List<AddressBook> findByOwnerIdAndIdGreaterThanOrderByIdAsc(Long ownerId, Long after, Limit limit);
+
+    // ✅ Keyset page over the whole table, for node-local index builds only
+    List<AddressBook> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // ✅ Keyset page within one id range, so a rebuild can copy ranges in parallel
+    List<AddressBook> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long after, Long upTo, Limit limit);
+
+    Optional<AddressBook> findFirstByOrderByIdDesc();
+
+    // ✅ Exact lookups, for when the Redis projection cannot answer
+    List<AddressBook> findByOwnerIdAndPhone(Long ownerId, String phone);
+
+    List<AddressBook> findByOwnerIdAndName(Long ownerId, String name);
+
+    // ✅ Forward-only cursor over one owner's contacts (caller must hold a transaction and close the stream)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM AddressBook a WHERE a.ownerId = :ownerId ORDER BY a.id")
+    Stream<AddressBook> streamByOwnerId(@Param("ownerId") Long ownerId);
 }
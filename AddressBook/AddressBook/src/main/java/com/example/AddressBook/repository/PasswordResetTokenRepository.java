@@ -2,8 +2,26 @@ package com.example.AddressBook.repository;
 
 import com.example.AddressBook.model.PasswordResetToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     Optional<PasswordResetToken> findByToken(String token);
+
+    // ✅ Requests for one email within the rate-limit window (served by the (email, created_at) index)
+    long countByEmailAndCreatedAtAfter(String email, LocalDateTime since);
+
+    // ✅ Consumes every outstanding link for the email by expiring it; 0 means another request got there first.
+    // The rows stay, so they keep counting towards the rate limit
+    @Modifying
+    @Query("UPDATE PasswordResetToken t SET t.expiryDate = :now WHERE t.email = :email AND t.expiryDate > :now")
+    int consumeByEmail(@Param("email") String email, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
 }
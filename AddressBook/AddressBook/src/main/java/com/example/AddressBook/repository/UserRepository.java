@@ -2,9 +2,14 @@ package com.example.AddressBook.repository;
 
 import com.example.AddressBook.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    // ✅ Same lookup in a read-only transaction, served by a replica when read/write splitting is on
+    @Transactional(readOnly = true)
+    Optional<User> readByUsername(String username);
     Optional<User> findByEmail(String email);
 }
@@ -0,0 +1,280 @@
+package com.example.AddressBook.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over contact name, email and phone.
+ *
+ * Terms live in a sorted dictionary (prefix lookups are a sub-map scan) with a trigram
+ * index over the dictionary for substring matches. Edit-distance-1 matches are found by
+ * generating the query term's deletion/substitution/insertion/transposition variants and
+ * looking them up directly. Each query token must match (AND); a contact's score is the sum
+ * of its best match per token.
+ */
+public class ContactSearchIndex {
+
+    static final double EXACT = 3.0;
+    static final double PREFIX = 2.0;
+    static final double SUBSTRING = 1.5;
+    static final double FUZZY = 1.0;
+    private static final int MIN_NGRAM_LENGTH = 3;
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789";
+    private static final Comparator<Map.Entry<Long, Double>> RANKING =
+            Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    public record Result(List<Long> ids, int total) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Set<String>> termsByContact = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+
+    // ✅ Add or replace a contact
+    public void index(Long id, String name, String email, String phone) {
+        Set<String> terms = terms(name, email, phone);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            termsByContact.put(id, terms);
+            for (String term : terms) {
+                Set<Long> ids = postings.get(term);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    postings.put(term, ids);
+                    for (String gram : trigrams(term)) {
+                        termsByTrigram.computeIfAbsent(gram, k -> new HashSet<>()).add(term);
+                    }
+                }
+                ids.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termsByContact.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long id) {
+        Set<String> terms = termsByContact.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(term);
+                for (String gram : trigrams(term)) {
+                    Set<String> gramTerms = termsByTrigram.get(gram);
+                    if (gramTerms != null && gramTerms.remove(term) && gramTerms.isEmpty()) {
+                        termsByTrigram.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    // ✅ Ranked ids for [offset, offset + limit) plus the total number of matches
+    public Result search(String query, int offset, int limit) {
+        List<String> tokens = queryTokens(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new Result(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = scoreToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return new Result(List.of(), 0);
+                }
+            }
+            return new Result(topRanked(scores, offset, limit), scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreToken(String token) {
+        Map<Long, Double> scores = new HashMap<>();
+
+        // Exact and prefix: contiguous range of the sorted dictionary
+        for (Map.Entry<String, Set<Long>> entry : postings.subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+            addAll(scores, entry.getValue(), entry.getKey().equals(token) ? EXACT : PREFIX);
+        }
+        if (token.length() < MIN_NGRAM_LENGTH) {
+            return scores;
+        }
+
+        // Substring: scan the rarest trigram's terms and verify - cheaper than intersecting common trigrams
+        Set<String> candidates = null;
+        for (String gram : trigrams(token)) {
+            Set<String> gramTerms = termsByTrigram.getOrDefault(gram, Set.of());
+            if (candidates == null || gramTerms.size() < candidates.size()) {
+                candidates = gramTerms;
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        for (String term : candidates) {
+            if (!term.startsWith(token) && term.contains(token)) {
+                addAll(scores, postings.get(term), SUBSTRING);
+            }
+        }
+
+        // Edit distance 1 (including adjacent transposition)
+        for (String variant : editDistanceOneVariants(token)) {
+            Set<Long> ids = postings.get(variant);
+            if (ids != null) {
+                addAll(scores, ids, FUZZY);
+            }
+        }
+        return scores;
+    }
+
+    private static void addAll(Map<Long, Double> scores, Set<Long> ids, double score) {
+        for (Long id : ids) {
+            scores.merge(id, score, Math::max);
+        }
+    }
+
+    // Bounded heap: O(n log k) instead of sorting every match
+    private static List<Long> topRanked(Map<Long, Double> scores, int offset, int limit) {
+        int k = offset + limit;
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Math.min(k, scores.size()) + 1, RANKING.reversed());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (top.size() < k) {
+                top.add(entry);
+            } else if (RANKING.compare(entry, top.peek()) < 0) {
+                top.poll();
+                top.add(entry);
+            }
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        List<Long> ids = new ArrayList<>(limit);
+        for (int i = offset; i < ranked.size(); i++) {
+            ids.add(ranked.get(i).getKey());
+        }
+        return ids;
+    }
+
+    static Set<String> terms(String name, String email, String phone) {
+        Set<String> terms = new HashSet<>();
+        addWords(terms, name);
+        if (email != null && !email.isBlank()) {
+            String normalized = email.trim().toLowerCase(Locale.ROOT);
+            terms.add(normalized);
+            addWords(terms, normalized);
+        }
+        String digits = digits(phone);
+        if (!digits.isEmpty()) {
+            terms.add(digits);
+        }
+        return terms;
+    }
+
+    private static void addWords(Set<String> terms, String text) {
+        if (text == null) {
+            return;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                terms.add(word);
+            }
+        }
+    }
+
+    static List<String> queryTokens(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        String trimmed = query.trim();
+        // A phone number typed with separators is one token
+        if (trimmed.matches("[+\\d][\\d\\s().+-]*") && !digits(trimmed).isEmpty()) {
+            return List.of(digits(trimmed));
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : trimmed.toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static String digits(String value) {
+        return value == null ? "" : value.replaceAll("\\D", "");
+    }
+
+    static List<String> trigrams(String term) {
+        if (term.length() < MIN_NGRAM_LENGTH) {
+            return List.of();
+        }
+        List<String> grams = new ArrayList<>(term.length() - 2);
+        for (int i = 0; i + MIN_NGRAM_LENGTH <= term.length(); i++) {
+            grams.add(term.substring(i, i + MIN_NGRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    static Set<String> editDistanceOneVariants(String token) {
+        Set<String> variants = new HashSet<>();
+        String alphabet = ALPHABET + token;
+        for (int i = 0; i <= token.length(); i++) {
+            String head = token.substring(0, i);
+            String tail = token.substring(i);
+            if (!tail.isEmpty()) {
+                variants.add(head + tail.substring(1));                                   // deletion
+            }
+            if (tail.length() > 1) {
+                variants.add(head + tail.charAt(1) + tail.charAt(0) + tail.substring(2));  // transposition
+            }
+            for (int c = 0; c < alphabet.length(); c++) {
+                char ch = alphabet.charAt(c);
+                if (!tail.isEmpty()) {
+                    variants.add(head + ch + tail.substring(1));                          // substitution
+                }
+                variants.add(head + ch + tail);                                           // insertion
+            }
+        }
+        variants.remove(token);
+        return variants;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.AddressBook.search;
+
+import com.example.AddressBook.dto.ContactSearchResultDTO;
+import com.example.AddressBook.messaging.ContactChangedEvent;
+import com.example.AddressBook.model.AddressBook;
+import com.example.AddressBook.repository.AddressBookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps this node's {@link ContactSearchIndex}es in sync and serves search requests.
+ *
+ * There is one index per owner, so a query only ever scores the caller's own contacts and
+ * its cost does not grow with other users' data. The indexes are loaded from the database at
+ * startup (keyset scan by id) and then maintained from contact change events, which every
+ * node receives on its own queue. Bulk imports only announce a count, so an IMPORTED event
+ * triggers a scan of ids above the last scanned id.
+ */
+@Service
+public class ContactSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactSearchService.class);
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final Map<Long, ContactSearchIndex> indexes = new ConcurrentHashMap<>();
+    private final AddressBookRepository addressBookRepository;
+    private final int scanPageSize;
+    // A lock rather than synchronized: a virtual thread blocked on JDBC inside synchronized pins its carrier
+    private final ReentrantLock catchUpLock = new ReentrantLock();
+    private long scannedUpToId;  // guarded by catchUpLock
+
+    public ContactSearchService(AddressBookRepository addressBookRepository,
+                                @Value("${search.index.scan-page-size:5000}") int scanPageSize) {
+        this.addressBookRepository = addressBookRepository;
+        this.scanPageSize = scanPageSize;
+    }
+
+    // ✅ Build the index in the background so startup is not blocked by large tables
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        Thread.ofVirtual().name("contact-search-bootstrap").start(() -> {
+            long start = System.currentTimeMillis();
+            catchUp();
+            logger.info("Contact search index built: {} contacts for {} owners in {} ms", size(), indexes.size(),
+                    System.currentTimeMillis() - start);
+        });
+    }
+
+    // ✅ Index every contact with an id above the last scanned id
+    public void catchUp() {
+        catchUpLock.lock();
+        try {
+            long after = scannedUpToId;
+            List<AddressBook> page;
+            do {
+                page = addressBookRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(scanPageSize));
+                for (AddressBook contact : page) {
+                    index(contact.getOwnerId()).index(contact.getId(), contact.getName(), contact.getEmail(), contact.getPhone());
+                }
+                if (!page.isEmpty()) {
+                    after = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == scanPageSize);
+            scannedUpToId = after;
+        } finally {
+            catchUpLock.unlock();
+        }
+    }
+
+    public void apply(List<ContactChangedEvent> events) {
+        boolean imported = false;
+        for (ContactChangedEvent event : events) {
+            if (event.getOwnerId() == null && event.getType() != ContactChangedEvent.ChangeType.IMPORTED) {
+                continue;  // published before contacts had owners; the next catch-up scan covers new rows
+            }
+            switch (event.getType()) {
+                case CREATED, UPDATED -> index(event.getOwnerId())
+                        .index(event.getContactId(), event.getName(), event.getEmail(), event.getPhone());
+                case DELETED -> {
+                    ContactSearchIndex index = indexes.get(event.getOwnerId());
+                    if (index != null) {
+                        index.remove(event.getContactId());
+                    }
+                }
+                case IMPORTED -> imported = true;
+            }
+        }
+        if (imported) {
+            catchUp();
+        }
+    }
+
+    public ContactSearchResultDTO search(Long ownerId, String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        ContactSearchIndex index = indexes.get(ownerId);
+        ContactSearchIndex.Result result = index == null ? new ContactSearchIndex.Result(List.of(), 0)
+                : index.search(query, pageNumber * pageSize, pageSize);
+        if (result.ids().isEmpty()) {
+            return new ContactSearchResultDTO(List.of(), pageNumber, pageSize, result.total());
+        }
+
+        // One query for the page, re-ordered by rank
+        Map<Long, AddressBook> byId = addressBookRepository.findByOwnerIdAndIdIn(ownerId, result.ids()).stream()
+                .collect(Collectors.toMap(AddressBook::getId, Function.identity()));
+        List<AddressBook> contacts = result.ids().stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new ContactSearchResultDTO(contacts, pageNumber, pageSize, result.total());
+    }
+
+    private ContactSearchIndex index(Long ownerId) {
+        return indexes.computeIfAbsent(ownerId, id -> new ContactSearchIndex());
+    }
+
+    private int size() {
+        return indexes.values().stream().mapToInt(ContactSearchIndex::size).sum();
+    }
+}
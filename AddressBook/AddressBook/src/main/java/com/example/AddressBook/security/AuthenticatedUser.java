@@ -0,0 +1,21 @@
+package com.example.AddressBook.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// ✅ Token principal that also carries the user's id, so contact queries can be scoped without a lookup
+public class AuthenticatedUser extends User {
+
+    private final Long id;
+
+    public AuthenticatedUser(Long id, String username, Collection<? extends GrantedAuthority> authorities) {
+        super(username, "", authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.AddressBook.security;
 
 import com.example.AddressBook.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,16 +15,33 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
 
-    public JwtAuthFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService,
+                         TokenRevocationService tokenRevocationService, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.authenticatedTimer = filterTimer(meterRegistry, "authenticated");
+        this.rejectedTimer = filterTimer(meterRegistry, "rejected");
+    }
+
+    // ✅ Time spent in this filter only; the rest of the chain is not included
+    private static Timer filterTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.jwt.filter")
+                .description("JWT verification and principal lookup per request")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @Override
@@ -35,20 +55,26 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
+        long start = System.nanoTime();
+        boolean authenticated = false;
         String token = authHeader.substring(7);
-        String username = jwtUtil.extractUsername(token); // Ensure this method exists in JwtUtil
+        Claims claims = jwtUtil.parseClaims(token);  // single verification, cached until the token expires
+        // Revocation check is in-process (Bloom filter) unless the token is a candidate
+        String username = claims == null || tokenRevocationService.isRevoked(claims) ? null : claims.getSubject();
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = userDetailsService.loadUserForToken(username);
 
-            if (jwtUtil.validateToken(token, userDetails)) {  // Ensure validateToken supports UserDetails
+            if (jwtUtil.validateToken(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()
                 );
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                authenticated = true;
             }
         }
+        (authenticated ? authenticatedTimer : rejectedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         chain.doFilter(request, response);
     }
 }
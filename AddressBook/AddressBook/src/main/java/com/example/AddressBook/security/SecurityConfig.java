@@ -1,17 +1,20 @@
 package com.example.AddressBook.security;
 
 import com.example.AddressBook.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 
+import java.time.Duration;
+
 @Configuration
 public class SecurityConfig {
 
@@ -29,6 +32,7 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**", "/swagger-ui/**", "/v3/api-docs/**", "/h2-console/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll() // Scraped without a JWT; restrict at the network edge
                         .requestMatchers("/api/addressbook/**").authenticated() // 🔐 Protect CRUD operations
                         .anyRequest().authenticated()
                 )
@@ -39,9 +43,19 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // ✅ Hashing runs on its own bounded pool; strength 0 means calibrate to the target latency at startup.
+    // Pin auth.hashing.bcrypt-strength in production so every node hashes at the same cost.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${auth.hashing.bcrypt-strength:0}") int bcryptStrength,
+                                                  @Value("${auth.hashing.target-latency:PT0.25S}") Duration targetLatency,
+                                                  @Value("${auth.hashing.threads:0}") int threads,
+                                                  @Value("${auth.hashing.queue-capacity:200}") int queueCapacity,
+                                                  @Value("${auth.hashing.max-wait:PT5S}") Duration maxWait,
+                                                  MeterRegistry meterRegistry) {
+        int strength = bcryptStrength > 0 ? bcryptStrength : BoundedPasswordEncoder.calibrateBcryptStrength(targetLatency, 10, 14);
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(BoundedPasswordEncoder.delegatingBcrypt(strength), poolSize, queueCapacity,
+                maxWait, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,172 @@
+package com.example.AddressBook.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Denylist for access tokens, checked on every authenticated request.
+ *
+ * Revocations live in Redis, either per token ({@code jti}) or per user (tokens issued before
+ * a cut-off, e.g. a password reset), with a TTL no longer than an access token's lifetime.
+ * An in-process Bloom filter mirrors the keys, so the common "not revoked" case is answered
+ * without a network round trip; only filter hits are confirmed in Redis. Other nodes learn
+ * of new revocations over pub/sub, and the filter is rebuilt periodically from a SCAN so
+ * expired entries drop out.
+ */
+@Component
+public class TokenRevocationService implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+    public static final String REVOCATION_CHANNEL = "auth.revocations";
+    static final String KEY_PREFIX = "auth:revoked:";
+    static final String JTI = "jti:";
+    static final String USER = "user:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final long accessTokenTtlMs;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Counter filterNegatives;
+    private final Counter redisNegatives;
+    private final Counter revokedHits;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter rebuilding;
+    private volatile boolean loaded;
+
+    public TokenRevocationService(StringRedisTemplate redisTemplate,
+                                  @Value("${jwt.expirationMs}") long accessTokenTtlMs,
+                                  @Value("${auth.revocation.expected-entries:1000000}") long expectedRevocations,
+                                  @Value("${auth.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.accessTokenTtlMs = accessTokenTtlMs;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        this.filterNegatives = checkCounter(meterRegistry, "filter_negative");
+        this.redisNegatives = checkCounter(meterRegistry, "redis_negative");
+        this.revokedHits = checkCounter(meterRegistry, "revoked");
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.revocation.checks")
+                .description("Denylist checks by how they were answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // ✅ Revoked access tokens must be rejected even when their signature and expiry are valid
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        String username = claims.getSubject();
+        boolean jtiCandidate = jti != null && (!loaded || filter.mightContain(JTI + jti));
+        boolean userCandidate = username != null && (!loaded || filter.mightContain(USER + username));
+        if (!jtiCandidate && !userCandidate) {
+            filterNegatives.increment();
+            return false;
+        }
+        try {
+            if (jtiCandidate && Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + JTI + jti))) {
+                revokedHits.increment();
+                return true;
+            }
+            if (userCandidate) {
+                String cutoff = redisTemplate.opsForValue().get(KEY_PREFIX + USER + username);
+                Date issuedAt = claims.getIssuedAt();
+                if (cutoff != null && (issuedAt == null || issuedAt.getTime() < Long.parseLong(cutoff))) {
+                    revokedHits.increment();
+                    return true;
+                }
+            }
+        } catch (DataAccessException e) {
+            // Only reached for filter hits; refuse rather than admit a possibly revoked token
+            logger.warn("Revocation check failed, rejecting token - {}", e.getMessage());
+            return true;
+        }
+        redisNegatives.increment();
+        return false;
+    }
+
+    // ✅ Logout: deny this token until it would have expired anyway
+    public void revokeToken(Claims claims) {
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return;
+        }
+        long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+        if (remainingMs > 0) {
+            revoke(JTI + claims.getId(), "1", Duration.ofMillis(remainingMs));
+        }
+    }
+
+    // ✅ Password reset: deny every access token issued to the user before now.
+    // 'iat' has second precision, so the cut-off is too; a login right after the reset stays valid.
+    public void revokeAllForUser(String username) {
+        long cutoff = System.currentTimeMillis() / 1000 * 1000;
+        revoke(USER + username, Long.toString(cutoff), Duration.ofMillis(accessTokenTtlMs));
+    }
+
+    private void revoke(String entry, String value, Duration ttl) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + entry, value, ttl);
+        addToFilter(entry);
+        redisTemplate.convertAndSend(REVOCATION_CHANNEL, entry);
+    }
+
+    // ✅ Revocation published by another node (or echoed back from this one)
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        addToFilter(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    // Reads 'rebuilding' before 'filter': a null means the rebuild either has not started (its SCAN
+    // will see the key) or has already swapped, so the entry always reaches the live filter
+    private void addToFilter(String entry) {
+        BloomFilter next = rebuilding;
+        filter.add(entry);
+        if (next != null) {
+            next.add(entry);
+        }
+    }
+
+    // ✅ Replace the filter with one built from the live keys; runs at startup, then periodically.
+    // Entries revoked mid-scan are added to both filters, so none are lost in the swap.
+    @Scheduled(initialDelay = 0, fixedDelayString = "${auth.revocation.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        BloomFilter next = new BloomFilter(expectedRevocations, falsePositiveRate);
+        rebuilding = next;
+        long entries = 0;
+        try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build())) {
+            while (keys.hasNext()) {
+                next.add(keys.next().substring(KEY_PREFIX.length()));
+                entries++;
+            }
+        } catch (DataAccessException e) {
+            rebuilding = null;
+            logger.warn("Revocation filter rebuild failed, keeping the current filter - {}", e.getMessage());
+            return;
+        }
+        filter = next;
+        rebuilding = null;
+        loaded = true;
+        if (entries > expectedRevocations) {
+            logger.warn("{} revocations exceed auth.revocation.expected-entries ({}); false positives will rise",
+                    entries, expectedRevocations);
+        }
+    }
+}
@@ -1,109 +1,172 @@
 package com.example.AddressBook.service;
 
-import com.example.AddressBook.dto.AddressBookDTO;
+import com.example.AddressBook.dto.ContactPageDTO;
+import com.example.AddressBook.messaging.ContactChangedEvent;
+import com.example.AddressBook.messaging.ContactEventPublisher;
+import com.example.AddressBook.projection.ContactProjectionService;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.cache.annotation.*;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 import com.example.AddressBook.model.AddressBook;
 import com.example.AddressBook.repository.AddressBookRepository;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class AddressBookService {
 
     private final AddressBookRepository addressBookRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final ContactEventPublisher contactEventPublisher;
+    private final EntityManager entityManager;
+    private final ContactProjectionService contactProjectionService;
     private static final Logger logger = LoggerFactory.getLogger(AddressBookService.class);
-    private static final String EXCHANGE_NAME = "addressbook.exchange";
-    private static final String ROUTING_KEY = "contact.events";
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
 
-    public AddressBookService(AddressBookRepository addressBookRepository, RabbitTemplate rabbitTemplate) {
+    public AddressBookService(AddressBookRepository addressBookRepository, ContactEventPublisher contactEventPublisher,
+                              EntityManager entityManager, ContactProjectionService contactProjectionService) {
         this.addressBookRepository = addressBookRepository;
-        this.rabbitTemplate = rabbitTemplate;
+        this.contactEventPublisher = contactEventPublisher;
+        this.entityManager = entityManager;
+        this.contactProjectionService = contactProjectionService;
     }
 
-    // ✅ Get all contacts with Caching
-    @Cacheable(value = "contacts", key = "'allContacts'")
-    public List<AddressBook> getAllContacts() {
-        logger.info("Fetching contacts from Database (Not Cached)");
-        return addressBookRepository.findAll();
+    // ✅ Keyset page of the owner's contacts ordered by id, from the Redis projection when it is ready
+    // (not cached - cursors make poor cache keys). No transaction: a projection hit never touches the pool
+    public ContactPageDTO getContactsPage(Long ownerId, Long after, Integer limit) {
+        long cursor = after == null ? 0L : after;
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        List<AddressBook> contacts = contactProjectionService.findPage(ownerId, cursor, size)
+                .orElseGet(() -> addressBookRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, cursor, Limit.of(size)));
+        Long nextCursor = contacts.size() == size ? contacts.get(contacts.size() - 1).getId() : null;
+        return new ContactPageDTO(contacts, nextCursor);
+    }
+
+    // ✅ Exact lookup by phone or by name, from the Redis projection when it is ready
+    public List<AddressBook> findContacts(Long ownerId, String name, String phone) {
+        if ((name == null) == (phone == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Pass either name or phone!");
+        }
+        return phone != null
+                ? contactProjectionService.findByPhone(ownerId, phone).orElseGet(() -> addressBookRepository.findByOwnerIdAndPhone(ownerId, phone))
+                : contactProjectionService.findByName(ownerId, name).orElseGet(() -> addressBookRepository.findByOwnerIdAndName(ownerId, name));
+    }
+
+    // ✅ Push every contact of the owner to the sink in id order without materialising them
+    @Transactional(readOnly = true)
+    public void streamAllContacts(Long ownerId, Consumer<AddressBook> sink) {
+        try (Stream<AddressBook> contacts = addressBookRepository.streamByOwnerId(ownerId)) {
+            contacts.forEach(contact -> {
+                sink.accept(contact);
+                entityManager.detach(contact);  // keep the persistence context from growing with the table
+            });
+        }
     }
 
-    // ✅ Get a specific contact by ID (Cached)
-    @Cacheable(value = "contacts", key = "#id")
-    public AddressBook getContactById(Long id) {
+    // ✅ Get a specific contact by ID (Cached); another owner's contact is reported as not found
+    @Cacheable(value = "contacts", key = "#ownerId + ':' + #id", sync = true)
+    @Transactional(readOnly = true)
+    public AddressBook getContactById(Long ownerId, Long id) {
         logger.info("Fetching contact {} from Database (Not Cached)", id);
-        return addressBookRepository.findById(id)
+        return addressBookRepository.findByIdAndOwnerId(id, ownerId)
                 .orElseThrow(() -> new RuntimeException("Contact not found with id: " + id));
     }
 
-    // ✅ Add new contact (Evicts Cache and Publishes Event)
+    // ✅ Add new contact (Caches it by ID and Publishes Event)
     @Transactional
-    @CacheEvict(value = "contacts", allEntries = true)
-    public AddressBook addContact(AddressBook contact) {
+    @CachePut(value = "contacts", key = "#ownerId + ':' + #result.id")
+    public AddressBook addContact(Long ownerId, AddressBook contact) {
         logger.info("Saving contact: Name={}, Phone={}, Email={}", contact.getName(), contact.getPhone(), contact.getEmail());
 
         if (contact.getName() == null || contact.getPhone() == null) {
             throw new RuntimeException("Name and Phone are required!");
         }
 
+        contact.setOwnerId(ownerId);
         AddressBook savedContact = addressBookRepository.save(contact);
 
         logger.info("Saved Contact ID: {}", savedContact.getId());
 
-        // Publish event to RabbitMQ
-        rabbitTemplate.convertAndSend(EXCHANGE_NAME, ROUTING_KEY, "Contact Added: " + savedContact.getName());
+        // Publish event to RabbitMQ (sent after commit)
+        contactEventPublisher.publish(ContactChangedEvent.of(ContactChangedEvent.ChangeType.CREATED, savedContact));
+        contactProjectionService.upsertAfterCommit(savedContact);
 
         return savedContact;
     }
 
 
 
-    // ✅ Update contact (Evicts Cache, Updates DB, and Publishes Event)
+    // ✅ Update contact (Refreshes cached entry and Publishes Event).
+    // A non-null version on the update is the one the client last read; a newer one in the database fails with 412.
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "contacts", key = "'allContacts'"),
-            @CacheEvict(value = "contacts", key = "#id")
-    })
-    @CachePut(value = "contacts", key = "#id")
-    public AddressBook updateContact(Long id, AddressBook updatedContact) {
+    @CachePut(value = "contacts", key = "#ownerId + ':' + #id")
+    public AddressBook updateContact(Long ownerId, Long id, AddressBook updatedContact) {
         logger.info("Updating contact {} - Updating Cache", id);
 
-        AddressBook existingContact = addressBookRepository.findById(id)
+        AddressBook existingContact = addressBookRepository.findByIdAndOwnerId(id, ownerId)
                 .orElseThrow(() -> new RuntimeException("Contact not found with id: " + id));
 
+        checkVersion(existingContact, updatedContact.getVersion());
+
         existingContact.setName(updatedContact.getName());
         existingContact.setPhone(updatedContact.getPhone());
-        AddressBook savedContact = addressBookRepository.save(existingContact);
+        // Flushed here so the cached result carries the new version and a concurrent write surfaces as 412
+        AddressBook savedContact;
+        try {
+            savedContact = addressBookRepository.saveAndFlush(existingContact);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw modifiedConcurrently(id);
+        }
 
-        // Publish event to RabbitMQ
-        rabbitTemplate.convertAndSend(EXCHANGE_NAME, ROUTING_KEY, "Contact Updated: " + savedContact.getName());
+        // Publish event to RabbitMQ (sent after commit)
+        contactEventPublisher.publish(ContactChangedEvent.of(ContactChangedEvent.ChangeType.UPDATED, savedContact));
         logger.info("Published Contact Updated event to RabbitMQ");
+        contactProjectionService.upsertAfterCommit(savedContact);
 
         return savedContact;
     }
 
-    // ✅ Delete contact (Evicts Cache and Publishes Event)
-    @Caching(evict = {
-            @CacheEvict(value = "contacts", key = "'allContacts'"),
-            @CacheEvict(value = "contacts", key = "#id")
-    })
-    public void deleteContact(Long id) {
+    // ✅ Delete contact (Evicts Cache and Publishes Event); a non-null expectedVersion must still be current
+    @Transactional
+    @CacheEvict(value = "contacts", key = "#ownerId + ':' + #id")
+    public void deleteContact(Long ownerId, Long id, Long expectedVersion) {
         logger.info("Deleting contact {} - Evicting Cache", id);
 
-        if (!addressBookRepository.existsById(id)) {
-            throw new RuntimeException("Contact not found with id: " + id);
-        }
+        AddressBook existingContact = addressBookRepository.findByIdAndOwnerId(id, ownerId)
+                .orElseThrow(() -> new RuntimeException("Contact not found with id: " + id));
+        checkVersion(existingContact, expectedVersion);
 
-        addressBookRepository.deleteById(id);
+        try {
+            addressBookRepository.delete(existingContact);
+            addressBookRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw modifiedConcurrently(id);
+        }
 
         // Publish event to RabbitMQ
-        rabbitTemplate.convertAndSend(EXCHANGE_NAME, ROUTING_KEY, "Contact Deleted: " + id);
+        contactEventPublisher.publish(ContactChangedEvent.deleted(ownerId, id));
         logger.info("Published Contact Deleted event to RabbitMQ");
+        contactProjectionService.removeAfterCommit(id);
+    }
+
+    private static void checkVersion(AddressBook contact, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(contact.getVersion())) {
+            throw modifiedConcurrently(contact.getId());
+        }
+    }
+
+    private static ResponseStatusException modifiedConcurrently(Long id) {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                "Contact " + id + " was modified by another request, reload it and retry!");
     }
 }
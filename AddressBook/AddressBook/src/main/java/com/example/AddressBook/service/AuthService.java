@@ -1,31 +1,97 @@
 package com.example.AddressBook.service;
 
+import com.example.AddressBook.dto.AuthTokensDTO;
+import com.example.AddressBook.messaging.UserRegisteredEvent;
+import com.example.AddressBook.model.PasswordResetToken;
 import com.example.AddressBook.model.User;
+import com.example.AddressBook.repository.PasswordResetTokenRepository;
 import com.example.AddressBook.repository.UserRepository;
 import com.example.AddressBook.security.JwtUtil;
+import com.example.AddressBook.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AuthService {
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final EmailService emailService;
-    private final ConcurrentHashMap<String, String> resetTokens = new ConcurrentHashMap<>();
-
-    public AuthService(UserRepository userRepository, JwtUtil jwtUtil, EmailService emailService, PasswordEncoder passwordEncoder) {
+    private final CustomUserDetailsService userDetailsService;
+    private final OutboxService outboxService;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final Duration resetTokenTtl;
+    private final int resetMaxPerWindow;
+    private final Duration resetWindow;
+    private final Timer loginSuccessTimer;
+    private final Timer loginFailureTimer;
+    private final Timer passwordHashTimer;
+
+    public AuthService(UserRepository userRepository, JwtUtil jwtUtil, EmailService emailService, PasswordEncoder passwordEncoder,
+                       CustomUserDetailsService userDetailsService, OutboxService outboxService,
+                       PasswordResetTokenRepository passwordResetTokenRepository, RefreshTokenService refreshTokenService,
+                       TokenRevocationService tokenRevocationService, MeterRegistry meterRegistry,
+                       @Value("${auth.reset.token-ttl:PT30M}") Duration resetTokenTtl,
+                       @Value("${auth.reset.max-per-window:3}") int resetMaxPerWindow,
+                       @Value("${auth.reset.window:PT1H}") Duration resetWindow) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
         this.emailService = emailService;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
+        this.outboxService = outboxService;
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.resetTokenTtl = resetTokenTtl;
+        this.resetMaxPerWindow = resetMaxPerWindow;
+        this.resetWindow = resetWindow;
+        this.loginSuccessTimer = loginTimer(meterRegistry, "success");
+        this.loginFailureTimer = loginTimer(meterRegistry, "failure");
+        this.passwordHashTimer = Timer.builder("auth.password.hash")
+                .description("Password encoding on registration and reset")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Dominated by the password hash comparison
+    private static Timer loginTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.login")
+                .description("Credential check per login attempt")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
+    // ✅ Write-then-publish: the welcome email is sent by the user.queue consumer, not inline
+    @Transactional
     public String registerUser(String username, String email, String password) {
         if (username == null || email == null || password == null) {
             throw new RuntimeException("Username, email, and password are required!");
@@ -38,29 +104,62 @@ public class AuthService {
             throw new RuntimeException("Email already registered!");
         }
 
-        String encodedPassword = passwordEncoder.encode(password);
+        String encodedPassword = passwordHashTimer.record(() -> passwordEncoder.encode(password));
         User user = new User();
         user.setUsername(username);
         user.setEmail(email);
         user.setPassword(encodedPassword);
         user.setRole("ROLE_USER");
-        System.out.println("Encoded Password (Before Saving): " + encodedPassword);
 
         userRepository.save(user);
-        emailService.sendWelcomeEmail(email);
+        outboxService.record(UserRegisteredEvent.TYPE, new UserRegisteredEvent(username, email));
         return "User registered successfully!";
     }
 
     @Autowired
     private AuthenticationManager authenticationManager;
 
-    public String authenticate(String username, String password) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(username, password)
-        );
-        return jwtUtil.generateToken(username);
+    public AuthTokensDTO authenticate(String username, String password) {
+        long start = System.nanoTime();
+        try {
+            authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password)
+            );
+        } catch (AuthenticationException e) {
+            loginFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        loginSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return issueTokens(username);
+    }
+
+    // ✅ Rotation: the refresh token is consumed and replaced along with a new access token
+    public AuthTokensDTO refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            throw new RuntimeException("Refresh token is required!");
+        }
+        return issueTokens(refreshTokenService.redeem(refreshToken));
+    }
+
+    // ✅ The access token is denylisted until it expires; the refresh token is deleted
+    public String logout(String accessToken, String refreshToken) {
+        Claims claims = accessToken == null ? null : jwtUtil.parseClaims(accessToken);
+        if (claims != null) {
+            tokenRevocationService.revokeToken(claims);
+        }
+        if (refreshToken != null && !refreshToken.isEmpty()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        return "Logged out successfully!";
+    }
+
+    private AuthTokensDTO issueTokens(String username) {
+        return new AuthTokensDTO(jwtUtil.generateToken(username), refreshTokenService.issue(username),
+                TimeUnit.MILLISECONDS.toSeconds(jwtUtil.getExpirationMs()));
     }
 
+    // ✅ Reset links live in the database (shared by every node) and expire after resetTokenTtl
+    @Transactional
     public String forgotPassword(String email) {
         if (email == null || email.isEmpty()) {
             throw new RuntimeException("Email is required!");
@@ -69,27 +168,68 @@ public class AuthService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Email not registered!"));
 
+        LocalDateTime now = LocalDateTime.now();
+        if (passwordResetTokenRepository.countByEmailAndCreatedAtAfter(user.getEmail(), now.minus(resetWindow)) >= resetMaxPerWindow) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many password reset requests, try again later!");
+        }
+
         String resetToken = UUID.randomUUID().toString();
-        resetTokens.put(resetToken, user.getEmail());
+        PasswordResetToken entity = new PasswordResetToken();
+        entity.setToken(hashToken(resetToken));
+        entity.setEmail(user.getEmail());
+        entity.setCreatedAt(now);
+        entity.setExpiryDate(now.plus(resetTokenTtl));
+        passwordResetTokenRepository.save(entity);
+
         emailService.sendPasswordResetEmail(email, resetToken);
         return "Password reset link sent to your email!";
     }
 
+    @Transactional
     public String resetPassword(String token, String newPassword) {
         if (token == null || newPassword == null || newPassword.isEmpty()) {
             throw new RuntimeException("Token and new password are required!");
         }
 
-        String email = resetTokens.remove(token);
-        if (email == null) {
+        PasswordResetToken resetToken = passwordResetTokenRepository.findByToken(hashToken(token))
+                .filter(t -> !t.isExpired())
+                .orElseThrow(() -> new RuntimeException("Invalid or expired reset token!"));
+        // Single use: every outstanding link for this email is consumed together
+        if (passwordResetTokenRepository.consumeByEmail(resetToken.getEmail(), LocalDateTime.now()) == 0) {
             throw new RuntimeException("Invalid or expired reset token!");
         }
 
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findByEmail(resetToken.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found!"));
 
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashTimer.record(() -> passwordEncoder.encode(newPassword)));
         userRepository.save(user);
+        userDetailsService.evictUser(user.getUsername());
+        // Existing sessions end with the old password
+        refreshTokenService.revokeAll(user.getUsername());
+        tokenRevocationService.revokeAllForUser(user.getUsername());
         return "Password updated successfully!";
     }
+
+    // ✅ Bulk delete of links that are both expired and out of the rate-limit window (served by the created_at index);
+    // deleting on expiry alone would let a user request more than resetMaxPerWindow links per window
+    @Scheduled(cron = "${auth.reset.purge-cron:0 */15 * * * *}")
+    @Transactional
+    public void purgeExpiredResetTokens() {
+        Duration retention = resetWindow.compareTo(resetTokenTtl) > 0 ? resetWindow : resetTokenTtl;
+        int deleted = passwordResetTokenRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("Purged {} expired password reset tokens", deleted);
+        }
+    }
+
+    // Only a hash is stored, so a database leak does not yield usable reset links
+    static String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package com.example.AddressBook.service;
+
+import com.example.AddressBook.cache.TwoLevelCache;
+import com.example.AddressBook.cache.TwoLevelCacheManager;
+import com.example.AddressBook.config.RedisConfig;
+import com.example.AddressBook.dto.BatchGetResultDTO;
+import com.example.AddressBook.model.AddressBook;
+import com.example.AddressBook.repository.AddressBookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Looks up many of one owner's contacts by id in a fixed number of round trips, whatever the
+ * batch size: the local cache, one Redis MGET for what it lacks, one database query for the
+ * remaining misses and one pipelined Redis write to cache them. The entries are the ones
+ * {@link AddressBookService#getContactById} reads and writes.
+ */
+@Service
+public class ContactBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactBatchService.class);
+
+    private final AddressBookRepository addressBookRepository;
+    private final TwoLevelCacheManager cacheManager;
+    private final int maxIds;
+
+    public ContactBatchService(AddressBookRepository addressBookRepository, TwoLevelCacheManager cacheManager,
+                               @Value("${contacts.batch-get.max-ids:500}") int maxIds) {
+        this.addressBookRepository = addressBookRepository;
+        this.cacheManager = cacheManager;
+        this.maxIds = maxIds;
+    }
+
+    // ✅ Contacts in request order; ids that are unknown or belong to another user are reported, not fatal.
+    // Not transactional: a connection is only taken for the query on the cache misses
+    public BatchGetResultDTO getContactsByIds(Long ownerId, List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new BatchGetResultDTO(List.of(), List.of());
+        }
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        uniqueIds.remove(null);
+        if (uniqueIds.size() > maxIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxIds + " ids per batch!");
+        }
+
+        TwoLevelCache cache = (TwoLevelCache) cacheManager.getCache("contacts");
+        Map<String, Long> idsByKey = new LinkedHashMap<>();
+        uniqueIds.forEach(id -> idsByKey.put(RedisConfig.contactKey(ownerId, id), id));
+        Map<Object, Object> cached = cache.getAll(idsByKey.keySet());
+
+        Map<Long, AddressBook> contacts = new LinkedHashMap<>();
+        cached.values().forEach(value -> {
+            AddressBook contact = (AddressBook) value;
+            contacts.put(contact.getId(), contact);
+        });
+        List<Long> missing = uniqueIds.stream().filter(id -> !contacts.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            logger.info("Fetching {} of {} contacts from Database (Not Cached)", missing.size(), uniqueIds.size());
+            Map<String, AddressBook> loaded = new LinkedHashMap<>();
+            for (AddressBook contact : addressBookRepository.findByOwnerIdAndIdIn(ownerId, missing)) {
+                contacts.put(contact.getId(), contact);
+                loaded.put(RedisConfig.contactKey(ownerId, contact.getId()), contact);
+            }
+            cache.putAllIfAbsent(loaded);
+        }
+
+        List<AddressBook> found = new ArrayList<>(contacts.size());
+        List<Long> notFound = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            AddressBook contact = contacts.get(id);
+            if (contact != null) {
+                found.add(contact);
+            } else {
+                notFound.add(id);
+            }
+        }
+        return new BatchGetResultDTO(found, notFound);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.AddressBook.service;
+
+import com.example.AddressBook.model.AddressBook;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes all of one owner's contacts to an output stream as CSV or NDJSON.
+ * Rows come from the forward-only cursor in {@link AddressBookService#streamAllContacts},
+ * so memory use is bounded by the fetch window and the output buffer, not the row count.
+ */
+@Service
+public class ContactExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactExportService.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] CSV_HEADER = "id,name,email,phone\n".getBytes(StandardCharsets.UTF_8);
+
+    private final AddressBookService addressBookService;
+    private final ObjectWriter jsonWriter;
+
+    public ContactExportService(AddressBookService addressBookService, ObjectMapper objectMapper) {
+        this.addressBookService = addressBookService;
+        this.jsonWriter = objectMapper.writerFor(AddressBook.class);
+    }
+
+    // ✅ Export every contact of the owner; the caller owns (and closes) the target stream
+    public long export(Long ownerId, OutputStream target, Format format, boolean gzip) throws IOException {
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(target, BUFFER_SIZE) : null;
+        BufferedOutputStream out = new BufferedOutputStream(gzip ? gzipStream : target, BUFFER_SIZE);
+        long[] rows = {0};
+
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER);
+        }
+        try {
+            addressBookService.streamAllContacts(ownerId, contact -> {
+                try {
+                    if (format == Format.CSV) {
+                        writeCsvRow(out, contact);
+                    } else {
+                        out.write(jsonWriter.writeValueAsBytes(contact));
+                        out.write('\n');
+                    }
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        out.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        logger.info("Exported {} contacts as {}{}", rows[0], format, gzip ? " (gzip)" : "");
+        return rows[0];
+    }
+
+    private static void writeCsvRow(OutputStream out, AddressBook contact) throws IOException {
+        StringBuilder row = new StringBuilder(96)
+                .append(contact.getId()).append(',')
+                .append(csvField(contact.getName())).append(',')
+                .append(csvField(contact.getEmail())).append(',')
+                .append(csvField(contact.getPhone())).append('\n');
+        out.write(row.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
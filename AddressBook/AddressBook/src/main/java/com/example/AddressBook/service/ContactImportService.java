@@ -0,0 +1,230 @@
+package com.example.AddressBook.service;
+
+import com.example.AddressBook.dto.AddressBookDTO;
+import com.example.AddressBook.dto.BulkImportResultDTO;
+import com.example.AddressBook.messaging.ContactChangedEvent;
+import com.example.AddressBook.messaging.ContactEventPublisher;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams large contact imports into the database in chunks.
+ *
+ * Rows are inserted with JDBC batch statements rather than JPA: AddressBook uses
+ * IDENTITY ids, which stop Hibernate from batching inserts. Each chunk commits in its
+ * own transaction and is announced with a single event.
+ */
+@Service
+public class ContactImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactImportService.class);
+    private static final String INSERT_SQL = "INSERT INTO address_book (owner_id, name, email, phone, version) VALUES (?, ?, ?, ?, 0)";
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ContactEventPublisher contactEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ContactImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                ContactEventPublisher contactEventPublisher, ObjectMapper objectMapper,
+                                @Value("${contacts.import.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.contactEventPublisher = contactEventPublisher;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    // ✅ Import a JSON array of AddressBookDTO, parsed one element at a time. A bad element is a row error;
+    // broken JSON stops the import, and the result still reports the chunks already committed
+    public BulkImportResultDTO importJson(Long ownerId, InputStream in) throws IOException {
+        ImportRun run = new ImportRun(ownerId);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Expected a JSON array of contacts!");
+            }
+            JsonStreamContext array = parser.getParsingContext();
+            try {
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                    if (token == null) {
+                        run.reject("Unexpected end of input, import stopped");
+                        break;
+                    }
+                    if (token != JsonToken.START_OBJECT) {
+                        run.reject("Expected a contact object but found " + token);
+                        parser.skipChildren();
+                        continue;
+                    }
+                    try {
+                        run.accept(objectMapper.readValue(parser, AddressBookDTO.class));
+                    } catch (DatabindException e) {
+                        if (e.getCause() instanceof StreamReadException broken) {
+                            throw broken;  // the JSON itself is broken, not just this element
+                        }
+                        run.reject("Invalid contact: " + e.getOriginalMessage());
+                        skipToArrayLevel(parser, array);
+                    }
+                }
+            } catch (StreamReadException e) {
+                run.reject("Malformed JSON, import stopped: " + e.getOriginalMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    // The element failed part-way through: read on until its closing token brings the parser back to the array
+    private static void skipToArrayLevel(JsonParser parser, JsonStreamContext array) throws IOException {
+        while (parser.getParsingContext() != array) {
+            if (parser.nextToken() == null) {
+                return;
+            }
+        }
+    }
+
+    // ✅ Import CSV with columns name,email,phone (an optional name,email,phone header line is skipped)
+    public BulkImportResultDTO importCsv(Long ownerId, Reader reader) throws IOException {
+        ImportRun run = new ImportRun(ownerId);
+        BufferedReader lines = reader instanceof BufferedReader br ? br : new BufferedReader(reader);
+        String line = lines.readLine();
+        if (line != null && isHeader(line)) {
+            line = lines.readLine();
+        }
+        for (; line != null; line = lines.readLine()) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = parseCsvLine(line);
+            if (fields.size() != 3) {
+                run.reject("Expected 3 columns (name,email,phone) but found " + fields.size());
+                continue;
+            }
+            run.accept(new AddressBookDTO(fields.get(0), fields.get(1).isEmpty() ? null : fields.get(1), fields.get(2)));
+        }
+        return run.finish();
+    }
+
+    private static boolean isHeader(String line) {
+        return parseCsvLine(line.toLowerCase()).equals(List.of("name", "email", "phone"));
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    // Same rule as AddressBookService.addContact: email is optional
+    private static String validate(AddressBookDTO dto) {
+        if (isBlank(dto.getName()) || isBlank(dto.getPhone())) {
+            return "Name and Phone are required!";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private void insertChunk(Long ownerId, List<AddressBookDTO> chunk) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(), (ps, dto) -> {
+                    ps.setLong(1, ownerId);
+                    ps.setString(2, dto.getName());
+                    ps.setString(3, dto.getEmail());
+                    ps.setString(4, dto.getPhone());
+                }));
+        // One event per committed chunk instead of one per contact
+        contactEventPublisher.publish(ContactChangedEvent.imported(ownerId, chunk.size()));
+    }
+
+    private class ImportRun {
+        private final Long ownerId;
+        private final List<AddressBookDTO> chunk = new ArrayList<>(chunkSize);
+        private final List<BulkImportResultDTO.RowError> errors = new ArrayList<>();
+        private int row;
+        private int imported;
+        private int rejected;
+
+        ImportRun(Long ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        void accept(AddressBookDTO dto) {
+            String error = validate(dto);
+            if (error != null) {
+                reject(error);
+                return;
+            }
+            row++;
+            chunk.add(dto);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(String message) {
+            row++;
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BulkImportResultDTO.RowError(row, message));
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            insertChunk(ownerId, chunk);
+            imported += chunk.size();
+            chunk.clear();
+        }
+
+        BulkImportResultDTO finish() {
+            flush();
+            logger.info("Bulk import finished: {} imported, {} rejected", imported, rejected);
+            return new BulkImportResultDTO(imported, rejected, errors);
+        }
+    }
+}
@@ -2,24 +2,38 @@ package com.example.AddressBook.service;
 
 import com.example.AddressBook.model.User;
 import com.example.AddressBook.repository.UserRepository;
+import com.example.AddressBook.security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final Cache<String, AuthenticatedUser> tokenPrincipalCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${auth.user-cache.ttl:PT30S}") Duration userCacheTtl,
+                                    @Value("${auth.user-cache.max-size:10000}") long userCacheMaxSize) {
         this.userRepository = userRepository;
+        this.tokenPrincipalCache = Caffeine.newBuilder()
+                .maximumSize(userCacheMaxSize)
+                .expireAfterWrite(userCacheTtl)
+                .build();
     }
 
+    // ✅ Login checks the hash on the primary: a replica may still hold the one from before a password reset
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
@@ -31,5 +45,33 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .authorities(List.of(new SimpleGrantedAuthority(user.getRole()))) // Fix role issue
                 .build();
     }
-}
 
+    // ✅ Called by Spring Security after a successful login whose stored hash needs upgrading
+    // (legacy unprefixed or weaker BCrypt); newPassword is already encoded
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = userRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        entity.setPassword(newPassword);
+        userRepository.save(entity);
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    // ✅ Principal for an already-verified JWT, cached briefly to skip the DB on every request, and read from a
+    // replica. Holds no password hash, so it is never handed to the AuthenticationManager.
+    public AuthenticatedUser loadUserForToken(String username) throws UsernameNotFoundException {
+        return tokenPrincipalCache.get(username, name -> {
+            User user = userRepository.readByUsername(name)
+                    .or(() -> userRepository.findByUsername(name))  // registered a moment ago, not replicated yet
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            return new AuthenticatedUser(user.getId(), user.getUsername(), List.of(new SimpleGrantedAuthority(user.getRole())));
+        });
+    }
+
+    // ✅ Drop the cached principal, e.g. after a password reset
+    public void evictUser(String username) {
+        tokenPrincipalCache.invalidate(username);
+    }
+}
@@ -13,9 +13,11 @@ public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
     private final JavaMailSender javaMailSender;
+    private final MailDispatcher mailDispatcher;
 
-    public EmailService(JavaMailSender javaMailSender) {
+    public EmailService(JavaMailSender javaMailSender, MailDispatcher mailDispatcher) {
         this.javaMailSender = javaMailSender;
+        this.mailDispatcher = mailDispatcher;
     }
 
     // ✅ Welcome Email
@@ -29,9 +31,9 @@ public class EmailService {
             helper.setSubject("Welcome to AddressBook!");
             helper.setText("Hello,\n\nThank you for registering with AddressBook. Enjoy your experience!", true);
 
-            logger.info("Sending email...");
-            javaMailSender.send(message);
-            logger.info("✅ Email successfully sent to {}", to);
+            if (mailDispatcher.enqueue(message, "welcome email to " + to)) {
+                logger.info("✅ Welcome email queued for {}", to);
+            }
         } catch (MessagingException e) {
             logger.error(" Email send failed to {} - Error: {}", to, e.getMessage(), e);
         }
@@ -49,9 +51,9 @@ public class EmailService {
             helper.setText("Hello,\n\nClick the link below to reset your password:\n\n" +
                     "http://localhost:8080/reset-password?token=" + token +
                     "\n\nThis link will expire in 15 minutes.", true);
-            logger.info(" Sending password reset email...");
-            javaMailSender.send(message);
-            logger.info(" Password reset email sent to {}", to);
+            if (mailDispatcher.enqueue(message, "password reset email to " + to)) {
+                logger.info(" Password reset email queued for {}", to);
+            }
         } catch (MessagingException e) {
             logger.error(" Password reset email failed to {} - Error: {}", to, e.getMessage(), e);
         }
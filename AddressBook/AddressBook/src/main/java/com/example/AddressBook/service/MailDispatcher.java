@@ -0,0 +1,250 @@
+package com.example.AddressBook.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers mail off the request thread.
+ *
+ * Messages go into a bounded queue drained by a small pool of virtual-thread workers.
+ * Each worker sends up to {@code batchSize} queued messages through one
+ * {@link JavaMailSender#send(MimeMessage...)} call, i.e. one SMTP session. Failed messages
+ * are retried with exponential backoff; after {@code maxAttempts} they are moved to a
+ * bounded in-memory dead-letter store. On shutdown, queued mail and mail still waiting
+ * for a retry is dead-lettered too.
+ */
+@Component
+public class MailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private final JavaMailSender javaMailSender;
+    private final BlockingQueue<PendingMail> queue;
+    private final Deque<DeadLetter> deadLetters = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger deadLetterCount = new AtomicInteger();
+    private final Set<PendingMail> waitingRetries = ConcurrentHashMap.newKeySet();  // removing one claims it
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final int deadLetterCapacity;
+    private final Timer sentTimer;
+    private final Timer failedTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter retries;
+
+    private ExecutorService workerPool;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    record PendingMail(MimeMessage message, String description, int attempt) {
+    }
+
+    public record DeadLetter(MimeMessage message, String description, int attempts, String error, Instant failedAt) {
+    }
+
+    public MailDispatcher(JavaMailSender javaMailSender,
+                          @Value("${mail.dispatch.queue-capacity:10000}") int queueCapacity,
+                          @Value("${mail.dispatch.workers:4}") int workers,
+                          @Value("${mail.dispatch.batch-size:50}") int batchSize,
+                          @Value("${mail.dispatch.max-attempts:5}") int maxAttempts,
+                          @Value("${mail.dispatch.initial-backoff:PT1S}") Duration initialBackoff,
+                          @Value("${mail.dispatch.dead-letter-capacity:1000}") int deadLetterCapacity,
+                          MeterRegistry meterRegistry) {
+        this.javaMailSender = javaMailSender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.deadLetterCapacity = deadLetterCapacity;
+        this.sentTimer = sendTimer(meterRegistry, "success");
+        this.failedTimer = sendTimer(meterRegistry, "failure");
+        this.batchSizes = DistributionSummary.builder("mail.batch.size")
+                .description("Messages sent per SMTP session")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.retries = Counter.builder("mail.retries").register(meterRegistry);
+        Gauge.builder("mail.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("mail.dead.letters", deadLetterCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    private static Timer sendTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("mail.send")
+                .description("SMTP session time per batch")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        workerPool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("mail-worker-", 0).factory());
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("mail-retry").daemon().factory());
+        for (int i = 0; i < workers; i++) {
+            workerPool.submit(this::runWorker);
+        }
+        logger.info("Mail dispatcher started with {} workers, batch size {}", workers, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;  // workers drain what is already queued, then exit
+        retryScheduler.shutdownNow();
+        workerPool.shutdown();
+        if (!workerPool.awaitTermination(30, TimeUnit.SECONDS)) {
+            workerPool.shutdownNow();
+        }
+        // shutdownNow() hands back the scheduler's task wrappers, so the waiting mail is tracked here
+        for (PendingMail mail : List.copyOf(waitingRetries)) {
+            if (waitingRetries.remove(mail)) {
+                deadLetter(mail, "Dispatcher stopped before retry");
+            }
+        }
+        queue.forEach(mail -> deadLetter(mail, "Dispatcher stopped before delivery"));
+        queue.clear();
+    }
+
+    // ✅ Returns immediately; false if the queue is full (the message is dead-lettered)
+    public boolean enqueue(MimeMessage message, String description) {
+        PendingMail mail = new PendingMail(message, description, 0);
+        if (!queue.offer(mail)) {
+            logger.warn("Mail queue full, dropping {}", description);
+            deadLetter(mail, "Mail queue is full");
+            return false;
+        }
+        return true;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public List<DeadLetter> getDeadLetters() {
+        return List.copyOf(deadLetters);
+    }
+
+    // ✅ Put every dead letter back on the queue with a fresh attempt budget
+    public int redriveDeadLetters() {
+        int redriven = 0;
+        DeadLetter letter;
+        while ((letter = deadLetters.pollFirst()) != null) {
+            deadLetterCount.decrementAndGet();
+            if (enqueue(letter.message(), letter.description())) {
+                redriven++;
+            }
+        }
+        return redriven;
+    }
+
+    private void runWorker() {
+        List<PendingMail> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMail first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Unexpected error in mail worker", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void deliver(List<PendingMail> batch) {
+        MimeMessage[] messages = batch.stream().map(PendingMail::message).toArray(MimeMessage[]::new);
+        batchSizes.record(messages.length);
+        long start = System.nanoTime();
+        try {
+            javaMailSender.send(messages);
+            sentTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            logger.info("✅ Delivered {} email(s) in one SMTP session", messages.length);
+        } catch (MailSendException e) {
+            failedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            // Only the messages listed as failed need another attempt
+            Map<Object, Exception> failed = e.getFailedMessages();
+            for (PendingMail mail : batch) {
+                Exception cause = failed.isEmpty() ? e : failed.get(mail.message());
+                if (cause != null) {
+                    retryOrDeadLetter(mail, cause);
+                }
+            }
+        } catch (MailException e) {
+            failedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batch.forEach(mail -> retryOrDeadLetter(mail, e));
+        }
+    }
+
+    private void retryOrDeadLetter(PendingMail mail, Exception cause) {
+        PendingMail next = new PendingMail(mail.message(), mail.description(), mail.attempt() + 1);
+        if (next.attempt() >= maxAttempts || !running) {
+            deadLetter(next, cause.getMessage());
+            return;
+        }
+        retries.increment();
+        long delayMs = initialBackoff.toMillis() << Math.min(next.attempt() - 1, 10);
+        logger.warn("Email {} failed (attempt {}), retrying in {} ms - {}", mail.description(), next.attempt(), delayMs,
+                cause.getMessage());
+        waitingRetries.add(next);
+        try {
+            retryScheduler.schedule(() -> {
+                if (waitingRetries.remove(next) && !queue.offer(next)) {
+                    deadLetter(next, "Mail queue is full");
+                }
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Stopping: the scheduler no longer takes retries
+            if (waitingRetries.remove(next)) {
+                deadLetter(next, cause.getMessage());
+            }
+        }
+    }
+
+    private void deadLetter(PendingMail mail, String error) {
+        logger.error("Email {} moved to dead-letter store after {} attempt(s) - {}", mail.description(), mail.attempt(), error);
+        deadLetters.addLast(new DeadLetter(mail.message(), mail.description(), mail.attempt(), error, Instant.now()));
+        if (deadLetterCount.incrementAndGet() > deadLetterCapacity && deadLetters.pollFirst() != null) {
+            deadLetterCount.decrementAndGet();
+        }
+    }
+}
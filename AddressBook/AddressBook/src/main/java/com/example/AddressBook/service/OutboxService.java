@@ -0,0 +1,31 @@
+package com.example.AddressBook.service;
+
+import com.example.AddressBook.model.OutboxEvent;
+import com.example.AddressBook.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    // ✅ Must join the caller's transaction so the event commits (or rolls back) with the business change
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String eventType, Object payload) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(eventType, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize " + eventType + " event", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.AddressBook.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Server-side refresh tokens in Redis.
+ *
+ * The client holds an opaque random token; Redis holds its SHA-256 mapped to the username,
+ * with the refresh TTL, plus a per-user set of those hashes so a password reset can drop them
+ * all. Tokens are single use: redeeming one deletes it atomically (GETDEL) and issues a new one.
+ */
+@Service
+public class RefreshTokenService {
+
+    static final String KEY_PREFIX = "auth:refresh:";
+    static final String USER_PREFIX = "auth:refresh-user:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration refreshTtl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(StringRedisTemplate redisTemplate,
+                               @Value("${auth.refresh.ttl:P14D}") Duration refreshTtl) {
+        this.redisTemplate = redisTemplate;
+        this.refreshTtl = refreshTtl;
+    }
+
+    public String issue(String username) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String hash = hash(token);
+        redisTemplate.opsForValue().set(KEY_PREFIX + hash, username, refreshTtl);
+        redisTemplate.opsForSet().add(USER_PREFIX + username, hash);
+        redisTemplate.expire(USER_PREFIX + username, refreshTtl);
+        return token;
+    }
+
+    // ✅ Consumes the token and returns its owner; a replayed or expired token is rejected
+    public String redeem(String token) {
+        String hash = hash(token);
+        String username = redisTemplate.opsForValue().getAndDelete(KEY_PREFIX + hash);
+        if (username == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired refresh token!");
+        }
+        redisTemplate.opsForSet().remove(USER_PREFIX + username, hash);
+        return username;
+    }
+
+    public void revoke(String token) {
+        String hash = hash(token);
+        String username = redisTemplate.opsForValue().getAndDelete(KEY_PREFIX + hash);
+        if (username != null) {
+            redisTemplate.opsForSet().remove(USER_PREFIX + username, hash);
+        }
+    }
+
+    public void revokeAll(String username) {
+        Set<String> hashes = redisTemplate.opsForSet().members(USER_PREFIX + username);
+        if (hashes != null && !hashes.isEmpty()) {
+            redisTemplate.delete(hashes.stream().map(hash -> KEY_PREFIX + hash).toList());
+        }
+        redisTemplate.delete(USER_PREFIX + username);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
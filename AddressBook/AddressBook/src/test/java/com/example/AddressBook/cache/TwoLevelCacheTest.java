@@ -0,0 +1,233 @@
+package com.example.AddressBook.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCache remote;
+    private TwoLevelCacheManager cacheManager;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("contacts");
+        cacheManager = mock(TwoLevelCacheManager.class);
+        com.github.benmanes.caffeine.cache.Cache<String, Cache.ValueWrapper> local =
+                Caffeine.newBuilder().maximumSize(100).build();
+        cache = new TwoLevelCache("contacts", local, remote, cacheManager);
+    }
+
+    // ✅ Test: L2 hit is promoted to L1
+    @Test
+    void testGet_PromotesRemoteHitToLocal() {
+        remote.put(1L, "John Doe");
+
+        assertEquals("John Doe", cache.get(1L).get());
+
+        remote.evict(1L);
+        assertEquals("John Doe", cache.get(1L).get());  // ✅ served from L1
+    }
+
+    // ✅ Test: Evict clears both tiers and broadcasts
+    @Test
+    void testEvict_ClearsBothTiersAndPublishes() {
+        cache.put(1L, "John Doe");
+
+        cache.evict(1L);
+
+        assertNull(cache.get(1L));
+        verify(cacheManager, times(1)).publishInvalidation("contacts", "1");
+    }
+
+    // ✅ Test: Remote invalidation only drops L1
+    @Test
+    void testEvictLocal_KeepsRemote() {
+        cache.put(1L, "John Doe");
+        remote.put(1L, "John Smith");
+
+        cache.evictLocal("1");
+
+        assertEquals("John Smith", cache.get(1L).get());
+    }
+
+    // ✅ Test: getAll serves L1, then L2, skips misses and keeps key order
+    @Test
+    void testGetAll_ReadsBothTiersInKeyOrder() {
+        cache.put("1", "John Doe");
+        remote.put("3", "Jane Doe");
+
+        Map<Object, Object> found = cache.getAll(List.of("3", "2", "1"));
+
+        assertEquals(List.of("3", "1"), new ArrayList<>(found.keySet()));
+        assertEquals("Jane Doe", found.get("3"));
+        remote.evict("3");
+        assertEquals("Jane Doe", cache.get("3").get());  // ✅ L2 hit promoted to L1
+    }
+
+    // ✅ Test: putAllIfAbsent keeps entries written meanwhile and broadcasts nothing
+    @Test
+    void testPutAllIfAbsent_KeepsExistingEntries() {
+        remote.put("1", "Newer");
+
+        cache.putAllIfAbsent(Map.of("1", "Loaded", "2", "Jane Doe"));
+
+        assertEquals("Newer", remote.get("1").get());
+        assertEquals("Jane Doe", remote.get("2").get());
+        assertEquals("Newer", cache.get("1").get());  // ✅ L1 did not take the value that lost
+        verify(cacheManager, never()).publishInvalidation(anyString(), anyString());
+    }
+
+    // ✅ Test: Hit/miss meters split by tier
+    @Test
+    void testMetrics_CountHitsPerTierAndMisses() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new TwoLevelCacheMetrics(cache, Tags.empty()).bindTo(registry);
+        remote.put(1L, "John Doe");
+
+        cache.get(1L);   // L2 hit
+        cache.get(1L);   // L1 hit
+        cache.get(2L);   // miss
+
+        assertEquals(2.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.tier.hits").tag("tier", "local").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.tier.hits").tag("tier", "remote").functionCounter().count());
+    }
+
+    // ✅ Test: Concurrent misses for one key run a single load
+    @Test
+    void testGetWithLoader_ConcurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<String>> readers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            readers.add(CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "John Doe";
+            }), pool));
+        }
+        while (cache.coalescedCount() + loads.get() < 8) {
+            Thread.onSpinWait();
+        }
+
+        release.countDown();
+
+        for (CompletableFuture<String> reader : readers) {
+            assertEquals("John Doe", reader.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(7, cache.coalescedCount());
+        assertEquals("John Doe", remote.get(1L).get());
+        pool.shutdown();
+    }
+
+    // ✅ Test: While another node holds the lease, wait for its value instead of querying the database
+    @Test
+    void testGetWithLoader_WaitsForLeaseHolder() {
+        CacheLoadLease lease = mock(CacheLoadLease.class);
+        when(lease.tryAcquire("contacts::1")).thenReturn(false);
+        when(lease.isHeld("contacts::1")).thenAnswer(invocation -> {
+            remote.put(1L, "John Doe");  // the other node finishes its load
+            return true;
+        });
+        TwoLevelCache leased = new TwoLevelCache("contacts", Caffeine.newBuilder().maximumSize(100).build(), remote,
+                cacheManager, new TwoLevelCache.LoadSettings(lease, Duration.ofSeconds(5), 0, null, Runnable::run));
+
+        assertEquals("John Doe", leased.get(1L, () -> fail("database must not be queried")));
+
+        assertEquals(1, leased.leaseWaitCount());
+        assertEquals(0, leased.missCount());
+    }
+
+    // ✅ Test: A hot entry close to expiry is reloaded while the current value is still served
+    @Test
+    void testGetWithLoader_RefreshesEarly() {
+        CacheLoadLease lease = mock(CacheLoadLease.class);
+        when(lease.tryAcquire(anyString())).thenReturn(true);
+        TwoLevelCache refreshing = new TwoLevelCache("contacts", Caffeine.newBuilder().maximumSize(100).build(), remote,
+                cacheManager, new TwoLevelCache.LoadSettings(lease, Duration.ofSeconds(5), 1.0,
+                        (key, value) -> Duration.ofNanos(1), Runnable::run));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", refreshing.get(1L, () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", refreshing.get(1L, () -> "v" + loads.incrementAndGet()));  // ✅ stale-while-revalidate
+
+        assertEquals(2, loads.get());
+        assertEquals("v2", remote.get(1L).get());
+        assertEquals(1, refreshing.earlyRefreshCount());
+        verify(lease, times(2)).release("contacts::1");
+    }
+
+    // ✅ Test: With the real TTLs (60 s L1, 30 min L2) the entry is still refreshed, long after its L1 copy expired
+    @Test
+    void testGetWithLoader_RefreshesEarlyAfterLocalExpiry() {
+        AtomicLong nanos = new AtomicLong();
+        CacheLoadLease lease = mock(CacheLoadLease.class);
+        when(lease.tryAcquire(anyString())).thenReturn(true);
+        TwoLevelCache refreshing = new TwoLevelCache("contacts",
+                Caffeine.newBuilder().maximumSize(100).expireAfterWrite(Duration.ofSeconds(60)).ticker(nanos::get).build(),
+                remote, cacheManager, new TwoLevelCache.LoadSettings(lease, Duration.ofSeconds(5), 1.0,
+                        (key, value) -> Duration.ofMinutes(30), Runnable::run, nanos::get));
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> slowLoad = () -> {
+            nanos.addAndGet(Duration.ofSeconds(5).toNanos());
+            return "v" + loads.incrementAndGet();
+        };
+
+        assertEquals("v1", refreshing.get(1L, slowLoad));
+        long expiresAt = nanos.get() + Duration.ofMinutes(30).toNanos();
+        nanos.addAndGet(Duration.ofMinutes(10).toNanos());
+        assertEquals("v1", refreshing.get(1L, slowLoad));  // L1 expired: L2 hit, far from expiry
+        assertEquals("v1", refreshing.get(1L, slowLoad));
+        assertEquals(1, loads.get());
+
+        nanos.set(expiresAt - 1);
+        assertEquals("v1", refreshing.get(1L, slowLoad));  // L1 expired again: L2 hit
+        assertEquals("v1", refreshing.get(1L, slowLoad));  // ✅ L1 hit due for refresh
+
+        assertEquals(2, loads.get());
+        assertEquals("v2", remote.get(1L).get());
+        assertEquals(1, refreshing.earlyRefreshCount());
+    }
+
+    // ✅ Test: A put that lands while a refresh reads the database is not overwritten by the refresh
+    @Test
+    void testGetWithLoader_RefreshKeepsNewerPut() {
+        TwoLevelCache refreshing = new TwoLevelCache("contacts", Caffeine.newBuilder().maximumSize(100).build(), remote,
+                cacheManager, new TwoLevelCache.LoadSettings(null, Duration.ZERO, 1.0,
+                        (key, value) -> Duration.ofNanos(1), Runnable::run));
+        assertEquals("v1", refreshing.get(1L, () -> "v1"));
+
+        assertEquals("v1", refreshing.get(1L, () -> {
+            refreshing.put(1L, "newer");  // e.g. a @CachePut from an update
+            return "stale";
+        }));
+
+        assertEquals("newer", remote.get(1L).get());
+        assertEquals("newer", refreshing.get(1L, () -> fail("must be served from L1")));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.AddressBook.codec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.example.AddressBook.messaging.ContactChangedEvent;
+import com.example.AddressBook.messaging.UserRegisteredEvent;
+import com.example.AddressBook.model.AddressBook;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+class CompactCodecTest {
+
+    // Pinned in AddressBook-reactive's CompactCodecTest as well; both apps must write and read exactly these
+    static final String CONTACT_BYTES =
+            "c70101002d3f540e084a6f686e20446f65146a6f686e2e646f65406578616d706c652e636f6d0a3132333435363738393006";
+    static final String CONTACT_EVENT_BYTES =
+            "c7030100377f01540e084a6f686e20446f65146a6f686e2e646f65406578616d706c652e636f6d0a31323334353637383930"
+                    + "80c49fd50c959aef3a02";
+    static final String IMPORTED_EVENT_BYTES = "c70301000b45030e80c49fd50c00f403";
+
+    private final CompactCodec codec = new CompactCodec(true, 1024);
+
+    // ✅ Test: Contact and event bytes are pinned, so the reactive app's copy of the codec keeps agreeing
+    @Test
+    void testGoldenBytes() {
+        AddressBook contact = new AddressBook(42L, 7L, "John Doe", "john.doe@example.com", "1234567890", 3L);
+        ContactChangedEvent updated = new ContactChangedEvent(ContactChangedEvent.ChangeType.UPDATED, 42L, 7L, "John Doe",
+                "john.doe@example.com", "1234567890", 1, Instant.ofEpochSecond(1_700_000_000L, 123_456_789));
+        ContactChangedEvent imported = new ContactChangedEvent(ContactChangedEvent.ChangeType.IMPORTED, null, 7L, null, null,
+                null, 250, Instant.ofEpochSecond(1_700_000_000L));
+
+        assertEquals(CONTACT_BYTES, HexFormat.of().formatHex(codec.encode(contact)));
+        assertEquals(CONTACT_EVENT_BYTES, HexFormat.of().formatHex(codec.encode(updated)));
+        assertEquals(IMPORTED_EVENT_BYTES, HexFormat.of().formatHex(codec.encode(imported)));
+        assertEquals(contact, codec.decode(HexFormat.of().parseHex(CONTACT_BYTES)));
+        assertEquals(updated, codec.decode(HexFormat.of().parseHex(CONTACT_EVENT_BYTES)));
+        assertEquals(imported, codec.decode(HexFormat.of().parseHex(IMPORTED_EVENT_BYTES)));
+    }
+
+    // ✅ Test: A contact round-trips, nulls included, in a fraction of the JSON size
+    @Test
+    void testContactRoundTrip() {
+        AddressBook contact = new AddressBook(42L, 7L, "John Doe", "john.doe@example.com", "1234567890", 3L);
+        AddressBook partial = new AddressBook(null, 7L, "Jane", null, null, null);
+
+        byte[] bytes = codec.encode(contact);
+
+        assertEquals(contact, codec.decode(bytes));
+        assertEquals(partial, codec.decode(codec.encode(partial)));
+        assertTrue(bytes.length * 2 < new GenericJackson2JsonRedisSerializer().serialize(contact).length,
+                "compact bytes: " + bytes.length);
+    }
+
+    // ✅ Test: Large contact lists are deflated and still round-trip
+    @Test
+    void testContactListIsCompressed() {
+        List<AddressBook> contacts = new ArrayList<>();
+        for (long i = 0; i < 500; i++) {
+            contacts.add(new AddressBook(i, 7L, "Contact " + i, "contact" + i + "@example.com", "555000" + i, 0L));
+        }
+
+        byte[] bytes = codec.encode(contacts);
+
+        assertEquals(1, bytes[3] & 1);  // deflated flag
+        assertEquals(contacts, codec.decode(bytes));
+        assertEquals(List.of(), codec.decode(codec.encode(List.of())));
+    }
+
+    // ✅ Test: Both event payloads round-trip
+    @Test
+    void testEventRoundTrip() {
+        ContactChangedEvent changed = new ContactChangedEvent(ContactChangedEvent.ChangeType.UPDATED, 42L, 7L,
+                "John Doe", "john.doe@example.com", "1234567890", 1, Instant.ofEpochSecond(1_700_000_000L, 123_456_789));
+        ContactChangedEvent imported = ContactChangedEvent.imported(7L, 250);
+        UserRegisteredEvent registered = new UserRegisteredEvent("john", "john.doe@example.com");
+
+        assertEquals(changed, codec.decode(codec.encode(changed)));
+        assertEquals(imported, codec.decode(codec.encode(imported)));
+        assertEquals(registered, codec.decode(codec.encode(registered)));
+    }
+
+    // ✅ Test: Fields appended by a newer schema version are skipped
+    @Test
+    void testReadsNewerVersion() {
+        CompactOutput out = new CompactOutput(64);
+        out.writeByte(CompactCodec.MAGIC);
+        out.writeByte(ContactSchemas.CONTACT_TYPE);
+        out.writeByte(2);
+        out.writeByte(0);
+        int record = out.beginRecord();
+        out.writeVarLong(0b1000101);  // id, name and an unknown seventh field
+        out.writeZigZagLong(42L);
+        out.writeString("John Doe");
+        out.writeString("a field this reader does not know");
+        out.endRecord(record);
+
+        AddressBook contact = (AddressBook) codec.decode(out.toByteArray());
+
+        assertEquals(42L, contact.getId());
+        assertEquals("John Doe", contact.getName());
+        assertNull(contact.getEmail());
+    }
+
+    // ✅ Test: Truncated input fails as a serialization error, not an out-of-bounds read
+    @Test
+    void testTruncatedInput() {
+        byte[] bytes = codec.encode(new AddressBook(42L, 7L, "John Doe", "john.doe@example.com", "1234567890", 3L));
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 5);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(truncated));
+    }
+
+    // ✅ Test: Entries and messages written in the legacy formats are still read
+    @Test
+    void testLegacyFormatsStillRead() {
+        AddressBook contact = new AddressBook(42L, 7L, "John Doe", "john.doe@example.com", "1234567890", 3L);
+        CompactRedisSerializer serializer = new CompactRedisSerializer(codec);
+        ContactChangedEvent event = ContactChangedEvent.of(ContactChangedEvent.ChangeType.CREATED, contact);
+        CompactMessageConverter converter = new CompactMessageConverter(codec);
+
+        Message legacy = new SimpleMessageConverter().toMessage(event, new MessageProperties());
+        Message compact = converter.toMessage(event, new MessageProperties());
+
+        assertEquals(contact, serializer.deserialize(new GenericJackson2JsonRedisSerializer().serialize(contact)));
+        assertEquals(event, converter.fromMessage(legacy));
+        assertEquals(CompactCodec.CONTENT_TYPE, compact.getMessageProperties().getContentType());
+        assertEquals(event, converter.fromMessage(compact));
+    }
+
+    // ✅ Test: With compact writes disabled the legacy formats are written, but compact values are still read
+    @Test
+    void testDisabledWritesLegacy() {
+        AddressBook contact = new AddressBook(42L, 7L, "John Doe", "john.doe@example.com", "1234567890", 3L);
+        CompactRedisSerializer serializer = new CompactRedisSerializer(new CompactCodec(false, 1024));
+
+        byte[] bytes = serializer.serialize(contact);
+
+        assertFalse(CompactCodec.isCompact(bytes));
+        assertEquals(contact, serializer.deserialize(codec.encode(contact)));
+    }
+}
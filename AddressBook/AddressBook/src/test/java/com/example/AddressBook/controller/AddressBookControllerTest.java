@@ -0,0 +1,204 @@
+package com.example.AddressBook.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.example.AddressBook.dto.ContactPageDTO;
+import com.example.AddressBook.model.AddressBook;
+import com.example.AddressBook.search.ContactSearchService;
+import com.example.AddressBook.security.AuthenticatedUser;
+import com.example.AddressBook.service.AddressBookService;
+import com.example.AddressBook.service.ContactBatchService;
+import com.example.AddressBook.service.ContactExportService;
+import com.example.AddressBook.service.ContactImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+// Standalone MockMvc: the JWT filter chain is covered elsewhere, here only the conditional-request handling
+@ExtendWith(MockitoExtension.class)
+class AddressBookControllerTest {
+
+    private static final Long OWNER_ID = 42L;
+    private static final String CONTACT_JSON = "{\"name\":\"John Doe\",\"phone\":\"1234567890\"}";
+
+    @Mock
+    private AddressBookService addressBookService;
+
+    @Mock
+    private ContactImportService contactImportService;
+
+    @Mock
+    private ContactExportService contactExportService;
+
+    @Mock
+    private ContactSearchService contactSearchService;
+
+    @Mock
+    private ContactBatchService contactBatchService;
+
+    private MockMvc mockMvc;
+    private AddressBook contact1, contact2;
+
+    @BeforeEach
+    void setUp() {
+        AuthenticatedUser user = new AuthenticatedUser(OWNER_ID, "jagrati", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        mockMvc = MockMvcBuilders.standaloneSetup(new AddressBookController(addressBookService, contactImportService,
+                        contactExportService, contactSearchService, contactBatchService))
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+        contact1 = new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 3L);
+        contact2 = new AddressBook(2L, OWNER_ID, "Jane Doe", "jane@example.com", "0987654321", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // ✅ Test: A contact's ETag is its version; a matching If-None-Match answers 304 without a body
+    @Test
+    void testGetContactById_NotModified() throws Exception {
+        when(addressBookService.getContactById(OWNER_ID, 1L)).thenReturn(contact1);
+
+        mockMvc.perform(get("/api/contacts/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        mockMvc.perform(get("/api/contacts/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/contacts/1").header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk());
+    }
+
+    // ✅ Test: An unchanged page answers 304 to its own ETag
+    @Test
+    void testGetContactsPage_NotModified() throws Exception {
+        when(addressBookService.getContactsPage(OWNER_ID, null, null)).thenReturn(new ContactPageDTO(List.of(contact1, contact2), null));
+        String etag = pageETag();
+
+        mockMvc.perform(get("/api/contacts").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    // ✅ Test: Adding, removing or updating a contact on the page changes its ETag, so stale copies get a 200
+    @Test
+    void testGetContactsPage_ETagFollowsChanges() throws Exception {
+        AddressBook contact3 = new AddressBook(3L, OWNER_ID, "Jim Doe", "jim@example.com", "5550001111", 0L);
+        AddressBook contact2Updated = new AddressBook(2L, OWNER_ID, "Jane Roe", "jane@example.com", "0987654321", 1L);
+        when(addressBookService.getContactsPage(OWNER_ID, null, null)).thenReturn(
+                new ContactPageDTO(List.of(contact1, contact2), null),
+                new ContactPageDTO(List.of(contact1, contact2, contact3), null),
+                new ContactPageDTO(List.of(contact1), null),
+                new ContactPageDTO(List.of(contact1, contact2Updated), null));
+
+        String original = pageETag();
+        String added = pageETag();
+        String removed = pageETag();
+        String updated = pageETag();
+
+        assertEquals(4, List.of(original, added, removed, updated).stream().distinct().count());
+
+        when(addressBookService.getContactsPage(OWNER_ID, null, null)).thenReturn(new ContactPageDTO(List.of(contact1, contact2Updated), null));
+        mockMvc.perform(get("/api/contacts").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, original))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, updated));
+    }
+
+    // ✅ Test: If-Match carries the client's version into the update; the new version comes back as the ETag
+    @Test
+    void testUpdateContact_IfMatch() throws Exception {
+        AddressBook saved = new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 4L);
+        when(addressBookService.updateContact(eq(OWNER_ID), eq(1L), argThat(contact -> Long.valueOf(3L).equals(contact.getVersion()))))
+                .thenReturn(saved);
+
+        mockMvc.perform(put("/api/contacts/1").header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(CONTACT_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    // ✅ Test: A stale If-Match answers 412
+    @Test
+    void testUpdateContact_StaleIfMatch() throws Exception {
+        when(addressBookService.updateContact(eq(OWNER_ID), eq(1L), argThat(contact -> Long.valueOf(2L).equals(contact.getVersion()))))
+                .thenThrow(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Contact 1 was modified by another request, reload it and retry!"));
+
+        mockMvc.perform(put("/api/contacts/1").header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(CONTACT_JSON))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    // ✅ Test: Malformed, weak, page or list If-Match values can never match a contact and answer 412 untouched
+    @Test
+    void testUpdateContact_MalformedIfMatch() throws Exception {
+        for (String ifMatch : List.of("3", "\"\"", "\"abc\"", "W/\"3\"", "\"p1f\"", "\"3\", \"4\"")) {
+            mockMvc.perform(put("/api/contacts/1").header(HttpHeaders.IF_MATCH, ifMatch)
+                            .contentType(MediaType.APPLICATION_JSON).content(CONTACT_JSON))
+                    .andExpect(status().isPreconditionFailed());
+        }
+        mockMvc.perform(delete("/api/contacts/1").header(HttpHeaders.IF_MATCH, "W/\"3\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(addressBookService, never()).updateContact(anyLong(), anyLong(), any());
+        verify(addressBookService, never()).deleteContact(anyLong(), anyLong(), any());
+    }
+
+    // ✅ Test: If-Match: * only requires the contact to exist, so no version is checked
+    @Test
+    void testIfMatchStar_SkipsVersionCheck() throws Exception {
+        when(addressBookService.updateContact(eq(OWNER_ID), eq(1L), argThat(contact -> contact.getVersion() == null)))
+                .thenReturn(contact1);
+
+        mockMvc.perform(put("/api/contacts/1").header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON).content(CONTACT_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/contacts/1").header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isOk());
+
+        verify(addressBookService).deleteContact(OWNER_ID, 1L, null);
+    }
+
+    // ✅ Test: Delete passes the If-Match version through; a stale one answers 412
+    @Test
+    void testDeleteContact_IfMatch() throws Exception {
+        lenient().doThrow(new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                        "Contact 1 was modified by another request, reload it and retry!"))
+                .when(addressBookService).deleteContact(OWNER_ID, 1L, 2L);  // lenient: the current-version call below uses other args
+
+        mockMvc.perform(delete("/api/contacts/1").header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/contacts/1").header(HttpHeaders.IF_MATCH, "\"2\""))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(addressBookService).deleteContact(OWNER_ID, 1L, 3L);
+    }
+
+    private String pageETag() throws Exception {
+        String etag = mockMvc.perform(get("/api/contacts").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+}
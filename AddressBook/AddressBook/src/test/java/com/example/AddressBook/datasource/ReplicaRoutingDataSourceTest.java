@@ -0,0 +1,143 @@
+package com.example.AddressBook.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.security.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Two in-memory H2 databases stand in for the primary and a replica; each holds its own name in "node"
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaRoutingDataSource routingDataSource;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        primary = new JdbcTemplate(h2("primary"));
+        replica = new JdbcTemplate(h2("replica"));
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenReturn(mock(ValueOperations.class));
+        routingDataSource = new ReplicaRoutingDataSource(primary.getDataSource(), Map.of("replica-0", replica.getDataSource()),
+                new ReadYourWrites(redisTemplate, Duration.ofSeconds(5)), Duration.ofSeconds(5));
+        routingDataSource.afterPropertiesSet();
+        monitor = new ReplicaLagMonitor(routingDataSource, new SimpleMeterRegistry());
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primary.execute("SHUTDOWN");
+        replica.execute("SHUTDOWN");
+    }
+
+    // ✅ Test: Read-only transactions go to a replica in range, everything else to the primary
+    @Test
+    void testReadOnlyRoutedToReplica() {
+        replicateHeartbeat(System.currentTimeMillis());
+
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals("primary", readWrite.execute(status -> node()));
+        assertEquals("primary", node());
+    }
+
+    // ✅ Test: A replica that lags past max-lag, or has no heartbeat yet, is skipped
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() {
+        assertEquals("primary", readOnly.execute(status -> node()));
+
+        replicateHeartbeat(System.currentTimeMillis() - 60_000);
+
+        assertEquals("primary", readOnly.execute(status -> node()));
+    }
+
+    // ✅ Test: After their own write a user reads from the primary; other users still use the replica
+    @Test
+    void testReadYourWrites() {
+        replicateHeartbeat(System.currentTimeMillis());
+        authenticate(7L);
+
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+
+        assertEquals("primary", readOnly.execute(status -> node()));
+        authenticate(8L);
+        assertEquals("replica", readOnly.execute(status -> node()));
+    }
+
+    // ✅ Test: onPrimary pins read-only work to the primary
+    @Test
+    void testOnPrimary() {
+        replicateHeartbeat(System.currentTimeMillis());
+
+        assertEquals("primary", ReplicaRoutingDataSource.onPrimary(() -> readOnly.execute(status -> node())));
+    }
+
+    // ✅ Test: The heartbeat lands on the primary and a replica that cannot be read is dropped
+    @Test
+    void testHeartbeatAndUnreadableReplica() {
+        monitor.heartbeat();
+        replicateHeartbeat(System.currentTimeMillis());
+        replica.execute("DROP TABLE " + ReplicaLagMonitor.TABLE);
+
+        monitor.probe();
+
+        assertNotNull(primary.queryForObject("SELECT beat_millis FROM " + ReplicaLagMonitor.TABLE + " WHERE id = 1", Long.class));
+        assertFalse(routingDataSource.isUsable("replica-0"));
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    // What replication would have copied from the primary
+    private void replicateHeartbeat(long beatMillis) {
+        replica.execute("CREATE TABLE IF NOT EXISTS " + ReplicaLagMonitor.TABLE + " (id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        replica.update("MERGE INTO " + ReplicaLagMonitor.TABLE + " (id, beat_millis) KEY (id) VALUES (1, ?)", beatMillis);
+        monitor.probe();
+    }
+
+    private static void authenticate(Long userId) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "user" + userId, List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE node (name VARCHAR(20))");
+        template.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.AddressBook.projection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.messaging.ContactChangedEvent;
+import com.example.AddressBook.model.AddressBook;
+import com.example.AddressBook.model.AddressBookCache;
+import com.example.AddressBook.repository.AddressBookCacheRepository;
+import com.example.AddressBook.repository.AddressBookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class ContactProjectionServiceTest {
+
+    private static final Long OWNER_ID = 42L;
+
+    private AddressBookRepository addressBookRepository;
+    private AddressBookCacheRepository projectionRepository;
+    private StringRedisTemplate redisTemplate;
+    private ZSetOperations<String, String> zSetOperations;
+    private ContactProjectionService projectionService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        addressBookRepository = mock(AddressBookRepository.class);
+        projectionRepository = mock(AddressBookCacheRepository.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        projectionService = new ContactProjectionService(addressBookRepository, projectionRepository, redisTemplate,
+                true, 1000, 2, Duration.ofMinutes(30));
+    }
+
+    // ✅ Test: Events are hints - current rows are re-read and saved, rows MySQL no longer has are removed
+    @Test
+    void testApply_UpsertsCurrentRowsAndRemovesDeleted() {
+        AddressBook current = new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 4L);
+        when(addressBookRepository.findAllById(anyIterable())).thenReturn(List.of(current));
+        when(projectionRepository.findById("2")).thenReturn(Optional.of(
+                new AddressBookCache("2", OWNER_ID, "Jane Doe", "jane@example.com", "0987654321", 0L)));
+
+        projectionService.apply(List.of(
+                new ContactChangedEvent(ContactChangedEvent.ChangeType.UPDATED, 1L, OWNER_ID, "stale", null, null, 1, null),
+                new ContactChangedEvent(ContactChangedEvent.ChangeType.DELETED, 2L, OWNER_ID, null, null, null, 1, null)));
+
+        verify(projectionRepository).saveAll(List.of(AddressBookCache.of(current)));
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        verify(zSetOperations).remove(ContactProjectionService.OWNER_INDEX_PREFIX + OWNER_ID, "2");
+        verify(projectionRepository).deleteById("2");
+    }
+
+    // ✅ Test: A failed update clears the ready marker instead of failing the listener
+    @Test
+    void testApply_FailureMarksStale() {
+        when(addressBookRepository.findAllById(anyIterable())).thenReturn(List.of(
+                new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 4L)));
+        when(projectionRepository.saveAll(anyIterable())).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertDoesNotThrow(() -> projectionService.apply(List.of(
+                new ContactChangedEvent(ContactChangedEvent.ChangeType.CREATED, 1L, OWNER_ID, null, null, null, 1, null))));
+
+        verify(redisTemplate).delete(ContactProjectionService.READY_KEY);
+    }
+
+    // ✅ Test: A write reaches the projection only once its transaction commits
+    @Test
+    void testUpsertAfterCommit() {
+        AddressBook contact = new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 0L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            projectionService.upsertAfterCommit(contact);
+            verifyNoInteractions(projectionRepository);
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(projectionRepository).saveAll(List.of(AddressBookCache.of(contact)));
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    // ✅ Test: A page read while an upsert rewrites a hash falls back to MySQL and leaves the owner index alone
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindPage_DuringUpsert_KeepsIndex() {
+        AddressBook contact = new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 0L);
+        when(redisTemplate.hasKey(ContactProjectionService.READY_KEY)).thenReturn(true);
+        when(zSetOperations.rangeByScore(ContactProjectionService.OWNER_INDEX_PREFIX + OWNER_ID, 1, Double.POSITIVE_INFINITY, 0, 50))
+                .thenReturn(new LinkedHashSet<>(List.of("1")));
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.<Object>of(Map.of()));  // hash deleted, not yet rewritten
+        when(addressBookRepository.findAllById(anyIterable())).thenReturn(List.of(contact));
+        List<Optional<List<AddressBook>>> pages = new ArrayList<>();
+        when(projectionRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            if (pages.isEmpty()) {
+                pages.add(projectionService.findPage(OWNER_ID, 0L, 50));  // reads in the middle of saveAll
+            }
+            return invocation.getArgument(0);
+        });
+
+        projectionService.upsertAfterCommit(contact);
+
+        assertTrue(pages.get(0).isEmpty());  // ✅ MySQL answers that page
+        verify(projectionRepository, timeout(1_000).times(2)).saveAll(anyIterable());  // the repair re-upserts the live row
+        verify(zSetOperations, never()).remove(ContactProjectionService.OWNER_INDEX_PREFIX + OWNER_ID, "1");
+    }
+
+    // ✅ Test: A repair drops only members MySQL no longer has
+    @Test
+    void testRepair_RemovesDeletedMembers() {
+        when(addressBookRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        projectionService.repair(OWNER_ID, List.of("2"));
+
+        verify(zSetOperations).remove(ContactProjectionService.OWNER_INDEX_PREFIX + OWNER_ID, "2");
+    }
+
+    // ✅ Test: Reads are not answered until the projection has been built
+    @Test
+    void testFindPage_NotReady() {
+        when(redisTemplate.hasKey(ContactProjectionService.READY_KEY)).thenReturn(false);
+
+        assertTrue(projectionService.findPage(OWNER_ID, 0L, 50).isEmpty());
+        assertTrue(projectionService.findByPhone(OWNER_ID, "1234567890").isEmpty());
+        verifyNoInteractions(zSetOperations, projectionRepository);
+    }
+
+    // ✅ Test: A ready projection answers phone lookups through the @Indexed sets
+    @Test
+    void testFindByPhone_Ready() {
+        when(redisTemplate.hasKey(ContactProjectionService.READY_KEY)).thenReturn(true);
+        when(projectionRepository.findByOwnerIdAndPhone(OWNER_ID, "1234567890")).thenReturn(List.of(
+                new AddressBookCache("1", OWNER_ID, "John Doe", "john@example.com", "1234567890", 4L)));
+
+        Optional<List<AddressBook>> result = projectionService.findByPhone(OWNER_ID, "1234567890");
+
+        assertEquals(List.of(new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 4L)), result.orElseThrow());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.AddressBook.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class ContactSearchIndexTest {
+
+    private ContactSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ContactSearchIndex();
+        index.index(1L, "John Doe", "john.doe@example.com", "123-456-7890");
+        index.index(2L, "Jane Doe", "jane@example.com", "0987654321");
+        index.index(3L, "Johnny Cash", "cash@music.org", "5555555555");
+    }
+
+    // ✅ Test: Exact match ranks above prefix match
+    @Test
+    void testSearch_PrefixRankedBelowExact() {
+        ContactSearchIndex.Result result = index.search("john", 0, 10);
+
+        assertEquals(List.of(1L, 3L), result.ids());
+        assertEquals(2, result.total());
+    }
+
+    // ✅ Test: Substring by trigram
+    @Test
+    void testSearch_Substring() {
+        assertEquals(List.of(3L), index.search("ohnn", 0, 10).ids());
+        assertEquals(List.of(1L), index.search("456-78", 0, 10).ids());
+    }
+
+    // ✅ Test: One typo (transposition) still matches
+    @Test
+    void testSearch_Fuzzy() {
+        assertEquals(List.of(1L), index.search("jhon doe", 0, 10).ids());
+    }
+
+    // ✅ Test: All tokens must match
+    @Test
+    void testSearch_AllTokensRequired() {
+        assertEquals(List.of(2L), index.search("jane doe", 0, 10).ids());
+        assertTrue(index.search("jane cash", 0, 10).ids().isEmpty());
+    }
+
+    // ✅ Test: Removal and re-index keep the index consistent
+    @Test
+    void testRemoveAndReindex() {
+        index.remove(1L);
+        assertEquals(List.of(3L), index.search("john", 0, 10).ids());
+
+        index.index(3L, "Johnny Walker", "walker@example.com", "5555555555");
+        assertTrue(index.search("cash", 0, 10).ids().isEmpty());
+        assertEquals(List.of(3L), index.search("walker", 0, 10).ids());
+    }
+
+    // ✅ Test: Pagination
+    @Test
+    void testSearch_Paged() {
+        assertEquals(List.of(1L, 2L), index.search("doe", 0, 2).ids());
+        assertEquals(List.of(), index.search("doe", 2, 2).ids());
+        assertEquals(2, index.search("doe", 2, 2).total());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.AddressBook.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    // ✅ Test: Round trip through the hashing pool with a prefixed hash
+    @Test
+    void testEncodeAndMatches() {
+        encoder = new BoundedPasswordEncoder(BoundedPasswordEncoder.delegatingBcrypt(4), 1, 10, Duration.ofSeconds(5), meterRegistry);
+
+        String hash = encoder.encode("password123");
+
+        assertTrue(hash.startsWith("{bcrypt}"));
+        assertTrue(encoder.matches("password123", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    // ✅ Test: Hashes stored before the migration still match and are flagged for rehash
+    @Test
+    void testLegacyHash_MatchesAndNeedsUpgrade() {
+        encoder = new BoundedPasswordEncoder(BoundedPasswordEncoder.delegatingBcrypt(4), 1, 10, Duration.ofSeconds(5), meterRegistry);
+        String legacy = new BCryptPasswordEncoder(4).encode("password123");
+
+        assertTrue(encoder.matches("password123", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+    }
+
+    // ✅ Test: Weaker BCrypt hashes are flagged for rehash at the current strength
+    @Test
+    void testWeakerStrength_NeedsUpgrade() {
+        encoder = new BoundedPasswordEncoder(BoundedPasswordEncoder.delegatingBcrypt(5), 1, 10, Duration.ofSeconds(5), meterRegistry);
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("password123");
+
+        assertTrue(encoder.upgradeEncoding(weaker));
+    }
+
+    // ✅ Test: Work beyond the queue capacity is shed with 429
+    @Test
+    void testQueueFull_Rejected() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        encoder = new BoundedPasswordEncoder(blocking, 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (encoder.getQueueSize() < 1) {
+            Thread.onSpinWait();
+        }
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> encoder.encode("c"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+        assertEquals(1.0, meterRegistry.get("auth.hash.rejected").counter().count());
+        release.countDown();
+        assertEquals("a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    // ✅ Test: Calibration stays within the requested bounds
+    @Test
+    void testCalibrateBcryptStrength_Bounded() {
+        encoder = new BoundedPasswordEncoder(BoundedPasswordEncoder.delegatingBcrypt(4), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        assertEquals(4, BoundedPasswordEncoder.calibrateBcryptStrength(Duration.ZERO, 4, 6));
+        int strength = BoundedPasswordEncoder.calibrateBcryptStrength(Duration.ofSeconds(10), 4, 6);
+        assertTrue(strength >= 4 && strength <= 6);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.AddressBook.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS0xMjM0NTY3ODkwMTIzNDU2Nzg5MA==";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expirationMs", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 100L);
+        jwtUtil.init();
+    }
+
+    // ✅ Test: Valid token parses once and is served from cache afterwards
+    @Test
+    void testParseClaims_Cached() {
+        String token = jwtUtil.generateToken("jagrati");
+
+        Claims first = jwtUtil.parseClaims(token);
+        Claims second = jwtUtil.parseClaims(token);
+
+        assertEquals("jagrati", first.getSubject());
+        assertSame(first, second);
+    }
+
+    // ✅ Test: Validate against UserDetails
+    @Test
+    void testValidateToken() {
+        String token = jwtUtil.generateToken("jagrati");
+        UserDetails user = User.withUsername("jagrati").password("").authorities(List.of()).build();
+        UserDetails other = User.withUsername("someone").password("").authorities(List.of()).build();
+
+        assertTrue(jwtUtil.validateToken(token, user));
+        assertFalse(jwtUtil.validateToken(token, other));
+    }
+
+    // ✅ Test: Each token carries its own id, so it can be revoked on its own
+    @Test
+    void testGenerateToken_UniqueId() {
+        Claims first = jwtUtil.parseClaims(jwtUtil.generateToken("jagrati"));
+        Claims second = jwtUtil.parseClaims(jwtUtil.generateToken("jagrati"));
+
+        assertNotNull(first.getId());
+        assertNotEquals(first.getId(), second.getId());
+    }
+
+    // ✅ Test: Tampered token is rejected
+    @Test
+    void testParseClaims_Invalid() {
+        String token = jwtUtil.generateToken("jagrati");
+
+        assertNull(jwtUtil.parseClaims(token.substring(0, token.length() - 2) + "xx"));
+        assertNull(jwtUtil.extractUsername("not-a-jwt"));
+    }
+}
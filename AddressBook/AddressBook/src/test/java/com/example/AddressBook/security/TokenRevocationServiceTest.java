@@ -0,0 +1,97 @@
+package com.example.AddressBook.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Date;
+
+class TokenRevocationServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private Cursor<String> cursor;
+
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);  // ✅ Empty denylist at startup
+        service = new TokenRevocationService(redisTemplate, 60_000, 1_000, 0.001, new SimpleMeterRegistry());
+        service.rebuild();
+    }
+
+    private static Claims claims(String jti, String username, long issuedAtMs) {
+        Claims claims = Jwts.claims();
+        claims.setId(jti);
+        claims.setSubject(username);
+        claims.setIssuedAt(new Date(issuedAtMs));
+        claims.setExpiration(new Date(issuedAtMs + 60_000));
+        return claims;
+    }
+
+    // ✅ Test: Unrevoked token is answered by the Bloom filter without touching Redis
+    @Test
+    void testIsRevoked_FilterMiss_NoRedisCall() {
+        assertFalse(service.isRevoked(claims("jti-1", "jagrati", System.currentTimeMillis())));
+
+        verify(redisTemplate, never()).hasKey(anyString());
+        verify(valueOperations, never()).get(anyString());
+    }
+
+    // ✅ Test: Revoked token is stored with a TTL, published and then rejected
+    @Test
+    void testRevokeToken_ThenRejected() {
+        Claims claims = claims("jti-1", "jagrati", System.currentTimeMillis());
+
+        service.revokeToken(claims);
+
+        verify(valueOperations).set(eq("auth:revoked:jti:jti-1"), eq("1"), any(Duration.class));
+        verify(redisTemplate).convertAndSend(TokenRevocationService.REVOCATION_CHANNEL, "jti:jti-1");
+        when(redisTemplate.hasKey("auth:revoked:jti:jti-1")).thenReturn(true);
+        assertTrue(service.isRevoked(claims));
+    }
+
+    // ✅ Test: Per-user revocation rejects older tokens but not ones issued afterwards
+    @Test
+    void testRevokeAllForUser_CutOffByIssuedAt() {
+        long now = System.currentTimeMillis();
+        service.revokeAllForUser("jagrati");
+        when(valueOperations.get("auth:revoked:user:jagrati")).thenReturn(Long.toString(now / 1000 * 1000));
+
+        assertTrue(service.isRevoked(claims("old", "jagrati", now / 1000 * 1000 - 5_000)));
+        assertFalse(service.isRevoked(claims("new", "jagrati", now / 1000 * 1000 + 1_000)));
+    }
+
+    // ✅ Test: Revocations from other nodes arrive over pub/sub and reach the filter
+    @Test
+    void testOnMessage_AddsToFilter() {
+        Message message = mock(Message.class);
+        when(message.getBody()).thenReturn("jti:remote".getBytes());
+        when(redisTemplate.hasKey("auth:revoked:jti:remote")).thenReturn(true);
+
+        service.onMessage(message, null);
+
+        assertTrue(service.isRevoked(claims("remote", "someone", System.currentTimeMillis())));
+    }
+}
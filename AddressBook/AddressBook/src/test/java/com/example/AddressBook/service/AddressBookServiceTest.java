@@ -3,15 +3,23 @@ package com.example.AddressBook.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.example.AddressBook.dto.ContactPageDTO;
+import com.example.AddressBook.messaging.ContactChangedEvent;
+import com.example.AddressBook.messaging.ContactEventPublisher;
 import com.example.AddressBook.model.AddressBook;
+import com.example.AddressBook.projection.ContactProjectionService;
 import com.example.AddressBook.repository.AddressBookRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Arrays;
 import java.util.List;
@@ -24,40 +32,81 @@ class AddressBookServiceTest {
     private AddressBookRepository addressBookRepository;
 
     @Mock
-    private RabbitTemplate rabbitTemplate;
+    private ContactEventPublisher contactEventPublisher;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ContactProjectionService contactProjectionService;
 
     @InjectMocks
     private AddressBookService addressBookService;
 
+    private static final Long OWNER_ID = 42L;
+
     private AddressBook contact1, contact2;
 
     @BeforeEach
     void setUp() {
-        contact1 = new AddressBook(1L, "John Doe", "1234567890");
-        contact2 = new AddressBook(2L, "Jane Doe", "0987654321");
+        contact1 = new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 3L);
+        contact2 = new AddressBook(2L, OWNER_ID, "Jane Doe", "jane@example.com", "0987654321", 0L);
+    }
+
+    // ✅ Test: Keyset page returns a cursor when the page is full
+    @Test
+    void testGetContactsPage_FullPage() {
+        when(addressBookRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(OWNER_ID, 0L, Limit.of(2)))
+                .thenReturn(Arrays.asList(contact1, contact2));
+
+        ContactPageDTO page = addressBookService.getContactsPage(OWNER_ID, null, 2);
+
+        assertEquals(2, page.getContacts().size());
+        assertEquals(2L, page.getNextCursor());
     }
 
-    // ✅ Test: Get all contacts
+    // ✅ Test: Last keyset page has no cursor
     @Test
-    void testGetAllContacts() {
-        when(addressBookRepository.findAll()).thenReturn(Arrays.asList(contact1, contact2));
+    void testGetContactsPage_LastPage() {
+        when(addressBookRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(OWNER_ID, 1L, Limit.of(2)))
+                .thenReturn(List.of(contact2));
 
-        List<AddressBook> result = addressBookService.getAllContacts();
+        ContactPageDTO page = addressBookService.getContactsPage(OWNER_ID, 1L, 2);
 
-        assertEquals(2, result.size());
-        verify(addressBookRepository, times(1)).findAll(); // Verify DB call
+        assertEquals(1, page.getContacts().size());
+        assertNull(page.getNextCursor());
+    }
+
+    // ✅ Test: A ready projection serves the page without touching the database
+    @Test
+    void testGetContactsPage_FromProjection() {
+        when(contactProjectionService.findPage(OWNER_ID, 0L, 2)).thenReturn(Optional.of(Arrays.asList(contact1, contact2)));
+
+        ContactPageDTO page = addressBookService.getContactsPage(OWNER_ID, null, 2);
+
+        assertEquals(2L, page.getNextCursor());
+        verifyNoInteractions(addressBookRepository);
+    }
+
+    // ✅ Test: Lookup falls back to the database while the projection is not ready
+    @Test
+    void testFindContacts_ByPhone() {
+        when(addressBookRepository.findByOwnerIdAndPhone(OWNER_ID, "1234567890")).thenReturn(List.of(contact1));
+
+        assertEquals(List.of(contact1), addressBookService.findContacts(OWNER_ID, null, "1234567890"));
+        assertThrows(ResponseStatusException.class, () -> addressBookService.findContacts(OWNER_ID, null, null));
     }
 
     // ✅ Test: Get contact by ID
     @Test
     void testGetContactById() {
-        when(addressBookRepository.findById(1L)).thenReturn(Optional.of(contact1));
+        when(addressBookRepository.findByIdAndOwnerId(1L, OWNER_ID)).thenReturn(Optional.of(contact1));
 
-        AddressBook result = addressBookService.getContactById(1L);
+        AddressBook result = addressBookService.getContactById(OWNER_ID, 1L);
 
         assertNotNull(result);
         assertEquals("John Doe", result.getName());
-        verify(addressBookRepository, times(1)).findById(1L);
+        verify(addressBookRepository, times(1)).findByIdAndOwnerId(1L, OWNER_ID);
     }
 
 
@@ -66,45 +115,81 @@ class AddressBookServiceTest {
     void testAddContact() {
         when(addressBookRepository.save(any(AddressBook.class))).thenReturn(contact1);
 
-        AddressBook savedContact = addressBookService.addContact(contact1);
+        AddressBook newContact = new AddressBook(null, null, "John Doe", "john@example.com", "1234567890", null);
+        AddressBook savedContact = addressBookService.addContact(OWNER_ID, newContact);
 
         assertNotNull(savedContact);
         assertEquals("John Doe", savedContact.getName());
+        assertEquals(OWNER_ID, newContact.getOwnerId());  // ✅ Owner comes from the caller, not the payload
 
-        verify(addressBookRepository, times(1)).save(contact1);
-        verify(rabbitTemplate, times(1))
-                .convertAndSend("addressbook.exchange", "contact.events", "Contact Added: John Doe");
+        verify(addressBookRepository, times(1)).save(newContact);
+        verify(contactEventPublisher, times(1)).publish(argThat(event ->
+                event.getType() == ContactChangedEvent.ChangeType.CREATED && "John Doe".equals(event.getName())
+                        && OWNER_ID.equals(event.getOwnerId())));
+        verify(contactProjectionService).upsertAfterCommit(contact1);  // ✅ Next page already shows it
     }
 
     // ✅ Test: Update contact (Cache Update & Event Published)
     @Test
     void testUpdateContact() {
-        when(addressBookRepository.findById(1L)).thenReturn(Optional.of(contact1));
-        when(addressBookRepository.save(any(AddressBook.class))).thenReturn(contact1);
+        when(addressBookRepository.findByIdAndOwnerId(1L, OWNER_ID)).thenReturn(Optional.of(contact1));
+        when(addressBookRepository.saveAndFlush(any(AddressBook.class))).thenReturn(contact1);
 
-        AddressBook updatedContact = new AddressBook(1L, "John Smith", "1234567890");
-        AddressBook result = addressBookService.updateContact(1L, updatedContact);
+        AddressBook updatedContact = new AddressBook(1L, OWNER_ID, "John Smith", "john@example.com", "1234567890", 3L);
+        AddressBook result = addressBookService.updateContact(OWNER_ID, 1L, updatedContact);
 
         assertEquals("John Smith", result.getName());
 
-        verify(addressBookRepository, times(1)).findById(1L);
-        verify(addressBookRepository, times(1)).save(any(AddressBook.class));
-        verify(rabbitTemplate, times(1))
-                .convertAndSend("addressbook.exchange", "contact.events", "Contact Updated: John Smith");
+        verify(addressBookRepository, times(1)).findByIdAndOwnerId(1L, OWNER_ID);
+        verify(addressBookRepository, times(1)).saveAndFlush(any(AddressBook.class));
+        verify(contactEventPublisher, times(1)).publish(argThat(event ->
+                event.getType() == ContactChangedEvent.ChangeType.UPDATED && "John Smith".equals(event.getName())));
+        verify(contactProjectionService).upsertAfterCommit(contact1);
+    }
+
+    // ✅ Test: Update with a version older than the stored one is rejected with 412
+    @Test
+    void testUpdateContact_StaleVersion() {
+        when(addressBookRepository.findByIdAndOwnerId(1L, OWNER_ID)).thenReturn(Optional.of(contact1));
+
+        AddressBook updatedContact = new AddressBook(1L, OWNER_ID, "John Smith", "john@example.com", "1234567890", 2L);
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> addressBookService.updateContact(OWNER_ID, 1L, updatedContact));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, e.getStatusCode());
+        assertEquals("John Doe", contact1.getName());
+        verify(addressBookRepository, never()).saveAndFlush(any(AddressBook.class));
+        verify(contactEventPublisher, never()).publish(any());
+    }
+
+    // ✅ Test: A write that commits between our read and flush is reported as 412, not lost
+    @Test
+    void testUpdateContact_ConcurrentWrite() {
+        when(addressBookRepository.findByIdAndOwnerId(1L, OWNER_ID)).thenReturn(Optional.of(contact1));
+        when(addressBookRepository.saveAndFlush(any(AddressBook.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(AddressBook.class, 1L));
+
+        AddressBook updatedContact = new AddressBook(1L, OWNER_ID, "John Smith", "john@example.com", "1234567890", null);
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> addressBookService.updateContact(OWNER_ID, 1L, updatedContact));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, e.getStatusCode());
+        verify(contactEventPublisher, never()).publish(any());
     }
 
     // ✅ Test: Delete contact (Cache Eviction & Event Published)
     @Test
     void testDeleteContact() {
-        when(addressBookRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(addressBookRepository).deleteById(1L);
+        when(addressBookRepository.findByIdAndOwnerId(1L, OWNER_ID)).thenReturn(Optional.of(contact1));
 
-        addressBookService.deleteContact(1L);
+        addressBookService.deleteContact(OWNER_ID, 1L, 3L);
 
-        verify(addressBookRepository, times(1)).existsById(1L);
-        verify(addressBookRepository, times(1)).deleteById(1L);
-        verify(rabbitTemplate, times(1))
-                .convertAndSend("addressbook.exchange", "contact.events", "Contact Deleted: 1");
+        verify(addressBookRepository, times(1)).findByIdAndOwnerId(1L, OWNER_ID);
+        verify(addressBookRepository, times(1)).delete(contact1);
+        verify(addressBookRepository, times(1)).flush();
+        verify(contactEventPublisher, times(1)).publish(argThat(event ->
+                event.getType() == ContactChangedEvent.ChangeType.DELETED && event.getContactId() == 1L));
+        verify(contactProjectionService).removeAfterCommit(1L);
     }
 
 
@@ -112,35 +197,57 @@ class AddressBookServiceTest {
     // ✅ Test: Get contact by ID - Not Found
     @Test
     void testGetContactById_NotFound() {
-        when(addressBookRepository.findById(3L)).thenReturn(Optional.empty());
+        when(addressBookRepository.findByIdAndOwnerId(3L, OWNER_ID)).thenReturn(Optional.empty());
 
-        assertThrows(RuntimeException.class, () -> addressBookService.getContactById(3L));
+        assertThrows(RuntimeException.class, () -> addressBookService.getContactById(OWNER_ID, 3L));
 
-        verify(addressBookRepository, times(1)).findById(3L);
+        verify(addressBookRepository, times(1)).findByIdAndOwnerId(3L, OWNER_ID);
     }
 
 
     // ✅ Test: Update contact - Not Found
     @Test
     void testUpdateContact_NotFound() {
-        when(addressBookRepository.findById(3L)).thenReturn(Optional.empty());
+        when(addressBookRepository.findByIdAndOwnerId(3L, OWNER_ID)).thenReturn(Optional.empty());
 
-        AddressBook updatedContact = new AddressBook(3L, "New Name", "9999999999");
+        AddressBook updatedContact = new AddressBook(3L, OWNER_ID, "New Name", "new@example.com", "9999999999", null);
 
-        assertThrows(RuntimeException.class, () -> addressBookService.updateContact(3L, updatedContact));
+        assertThrows(RuntimeException.class, () -> addressBookService.updateContact(OWNER_ID, 3L, updatedContact));
 
-        verify(addressBookRepository, times(1)).findById(3L);
+        verify(addressBookRepository, times(1)).findByIdAndOwnerId(3L, OWNER_ID);
+    }
+
+    // ✅ Test: Another owner's contact is not visible
+    @Test
+    void testGetContactById_OtherOwner() {
+        when(addressBookRepository.findByIdAndOwnerId(1L, 7L)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> addressBookService.getContactById(7L, 1L));
+
+        verify(addressBookRepository, never()).findById(anyLong());
     }
 
     // ✅ Test: Delete contact - Not Found
     @Test
     void testDeleteContact_NotFound() {
-        when(addressBookRepository.existsById(3L)).thenReturn(false);
+        when(addressBookRepository.findByIdAndOwnerId(3L, OWNER_ID)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> addressBookService.deleteContact(OWNER_ID, 3L, null));
+
+        verify(addressBookRepository, times(1)).findByIdAndOwnerId(3L, OWNER_ID);
+        verify(addressBookRepository, never()).delete(any(AddressBook.class)); // Ensure delete is never called
+    }
+
+    // ✅ Test: Delete with a stale If-Match version is rejected with 412
+    @Test
+    void testDeleteContact_StaleVersion() {
+        when(addressBookRepository.findByIdAndOwnerId(1L, OWNER_ID)).thenReturn(Optional.of(contact1));
 
-        assertThrows(RuntimeException.class, () -> addressBookService.deleteContact(3L));
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> addressBookService.deleteContact(OWNER_ID, 1L, 2L));
 
-        verify(addressBookRepository, times(1)).existsById(3L);
-        verify(addressBookRepository, never()).deleteById(anyLong()); // Ensure deleteById is never called
+        assertEquals(HttpStatus.PRECONDITION_FAILED, e.getStatusCode());
+        verify(addressBookRepository, never()).delete(any(AddressBook.class));
     }
 
 
@@ -2,14 +2,26 @@ package com.example.AddressBook.service;
 
 import static org.mockito.Mockito.*;
 
+import com.example.AddressBook.dto.AuthTokensDTO;
+import com.example.AddressBook.messaging.UserRegisteredEvent;
+import com.example.AddressBook.model.PasswordResetToken;
 import com.example.AddressBook.model.User;
+import com.example.AddressBook.repository.PasswordResetTokenRepository;
 import com.example.AddressBook.repository.UserRepository;
 import com.example.AddressBook.security.JwtUtil;
+import com.example.AddressBook.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,12 +36,33 @@ class AuthServiceTest {
     @Mock
     private EmailService emailService;  // ✅ Mock EmailService
 
-    @InjectMocks
-    private AuthService authService;  // ✅ Automatically inject mocks
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private OutboxService outboxService;  // ✅ Mock transactional outbox
+
+    @Mock
+    private PasswordResetTokenRepository passwordResetTokenRepository;  // ✅ Mock reset token store
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private AuthService authService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);  // ✅ Initialize Mocks
+        // ✅ Built by hand: the reset settings are plain values, and timers use a real registry
+        authService = new AuthService(userRepository, jwtUtil, emailService, passwordEncoder, userDetailsService,
+                outboxService, passwordResetTokenRepository, refreshTokenService, tokenRevocationService, new SimpleMeterRegistry(),
+                Duration.ofMinutes(30), 3, Duration.ofHours(1));
     }
 
     @Test
@@ -48,7 +81,9 @@ class AuthServiceTest {
 
         // ✅ Assert
         assertEquals("User registered successfully!", result);
-        verify(emailService, times(1)).sendWelcomeEmail("jagrati@example.com");  // ✅ Verify email is sent
+        verify(outboxService, times(1)).record(UserRegisteredEvent.TYPE,
+                new UserRegisteredEvent("jagrati", "jagrati@example.com"));  // ✅ Verify event is recorded
+        verify(emailService, never()).sendWelcomeEmail(anyString());  // ✅ No inline email
     }
 
     @Test
@@ -63,7 +98,91 @@ class AuthServiceTest {
 
         // ✅ Assert
         assertEquals("Password reset link sent to your email!", result);
-        verify(emailService, times(1)).sendPasswordResetEmail(eq("jagrati@example.com"), anyString()); // ✅ Verify email is sent
+        ArgumentCaptor<String> sentToken = ArgumentCaptor.forClass(String.class);
+        verify(emailService, times(1)).sendPasswordResetEmail(eq("jagrati@example.com"), sentToken.capture()); // ✅ Verify email is sent
+        ArgumentCaptor<PasswordResetToken> saved = ArgumentCaptor.forClass(PasswordResetToken.class);
+        verify(passwordResetTokenRepository).save(saved.capture());
+        assertEquals(AuthService.hashToken(sentToken.getValue()), saved.getValue().getToken());  // ✅ Only the hash is stored
+        assertFalse(saved.getValue().isExpired());
+    }
+
+    // ✅ Test: Reset Password - valid token is consumed and the password updated
+    @Test
+    void testResetPassword_Success() {
+        User user = new User();
+        user.setUsername("jagrati");
+        user.setEmail("jagrati@example.com");
+        when(passwordResetTokenRepository.findByToken(AuthService.hashToken("token-1")))
+                .thenReturn(Optional.of(resetToken("jagrati@example.com", LocalDateTime.now().plusMinutes(5))));
+        when(passwordResetTokenRepository.consumeByEmail(eq("jagrati@example.com"), any(LocalDateTime.class))).thenReturn(1);
+        when(userRepository.findByEmail("jagrati@example.com")).thenReturn(Optional.of(user));
+        when(passwordEncoder.encode("newPassword")).thenReturn("encoded");
+
+        assertEquals("Password updated successfully!", authService.resetPassword("token-1", "newPassword"));
+
+        assertEquals("encoded", user.getPassword());
+        verify(userDetailsService).evictUser("jagrati");
+        verify(refreshTokenService).revokeAll("jagrati");  // ✅ Existing sessions are ended
+        verify(tokenRevocationService).revokeAllForUser("jagrati");
+        verify(passwordResetTokenRepository, never()).delete(any(PasswordResetToken.class));  // ✅ Still counts towards the rate limit
+    }
+
+    // ✅ Test: Refresh - the refresh token is redeemed and a new pair issued
+    @Test
+    void testRefresh_IssuesNewPair() {
+        when(refreshTokenService.redeem("refresh-1")).thenReturn("jagrati");
+        when(refreshTokenService.issue("jagrati")).thenReturn("refresh-2");
+        when(jwtUtil.generateToken("jagrati")).thenReturn("access-2");
+        when(jwtUtil.getExpirationMs()).thenReturn(900_000L);
+
+        AuthTokensDTO tokens = authService.refresh("refresh-1");
+
+        assertEquals(new AuthTokensDTO("access-2", "refresh-2", 900), tokens);
+    }
+
+    // ✅ Test: Logout - access token denylisted and refresh token deleted
+    @Test
+    void testLogout_RevokesBothTokens() {
+        Claims claims = mock(Claims.class);
+        when(jwtUtil.parseClaims("access-1")).thenReturn(claims);
+
+        assertEquals("Logged out successfully!", authService.logout("access-1", "refresh-1"));
+
+        verify(tokenRevocationService).revokeToken(claims);
+        verify(refreshTokenService).revoke("refresh-1");
+    }
+
+    // ✅ Test: Reset Password - expired token is rejected
+    @Test
+    void testResetPassword_ExpiredToken() {
+        when(passwordResetTokenRepository.findByToken(AuthService.hashToken("token-1")))
+                .thenReturn(Optional.of(resetToken("jagrati@example.com", LocalDateTime.now().minusMinutes(1))));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> authService.resetPassword("token-1", "newPassword"));
+
+        assertEquals("Invalid or expired reset token!", e.getMessage());
+        verify(passwordResetTokenRepository, never()).consumeByEmail(anyString(), any(LocalDateTime.class));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    // ✅ Test: Reset Password - token already consumed by a concurrent request
+    @Test
+    void testResetPassword_AlreadyConsumed() {
+        when(passwordResetTokenRepository.findByToken(AuthService.hashToken("token-1")))
+                .thenReturn(Optional.of(resetToken("jagrati@example.com", LocalDateTime.now().plusMinutes(5))));
+        when(passwordResetTokenRepository.consumeByEmail(eq("jagrati@example.com"), any(LocalDateTime.class))).thenReturn(0);
+
+        assertThrows(RuntimeException.class, () -> authService.resetPassword("token-1", "newPassword"));
+
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    private static PasswordResetToken resetToken(String email, LocalDateTime expiry) {
+        PasswordResetToken token = new PasswordResetToken();
+        token.setEmail(email);
+        token.setCreatedAt(LocalDateTime.now());
+        token.setExpiryDate(expiry);
+        return token;
     }
 
     //throws test cases
@@ -87,4 +206,48 @@ class AuthServiceTest {
         verify(userRepository, times(1)).findByEmail("notfound@example.com");
     }
 
+    // ✅ Test: Forgot Password - too many requests within the window
+    @Test
+    void testForgotPassword_RateLimited() {
+        User mockUser = new User();
+        mockUser.setEmail("jagrati@example.com");
+        when(userRepository.findByEmail("jagrati@example.com")).thenReturn(Optional.of(mockUser));
+        when(passwordResetTokenRepository.countByEmailAndCreatedAtAfter(eq("jagrati@example.com"), any(LocalDateTime.class)))
+                .thenReturn(3L);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> authService.forgotPassword("jagrati@example.com"));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+        verify(passwordResetTokenRepository, never()).save(any(PasswordResetToken.class));
+        verify(emailService, never()).sendPasswordResetEmail(anyString(), anyString());
+    }
+
+    // ✅ Test: Purge - links still inside the rate-limit window survive, even once expired
+    @Test
+    void testPurge_KeepsLinksCountedByRateLimit() {
+        LocalDateTime windowStart = LocalDateTime.now().minusHours(1);
+
+        authService.purgeExpiredResetTokens();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(passwordResetTokenRepository).deleteCreatedBefore(cutoff.capture());
+        assertFalse(cutoff.getValue().isAfter(windowStart));  // ✅ 1h window outlasts the 30 min TTL
+    }
+
+    // ✅ Test: Purge - with a TTL longer than the window, links are kept until they expire
+    @Test
+    void testPurge_KeepsUnexpiredLinks() {
+        authService = new AuthService(userRepository, jwtUtil, emailService, passwordEncoder, userDetailsService,
+                outboxService, passwordResetTokenRepository, refreshTokenService, tokenRevocationService, new SimpleMeterRegistry(),
+                Duration.ofHours(2), 3, Duration.ofHours(1));
+        LocalDateTime oldestLive = LocalDateTime.now().minusHours(2);
+
+        authService.purgeExpiredResetTokens();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(passwordResetTokenRepository).deleteCreatedBefore(cutoff.capture());
+        assertFalse(cutoff.getValue().isAfter(oldestLive));
+    }
+
 }
@@ -0,0 +1,74 @@
+package com.example.AddressBook.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.cache.TwoLevelCache;
+import com.example.AddressBook.cache.TwoLevelCacheManager;
+import com.example.AddressBook.dto.BatchGetResultDTO;
+import com.example.AddressBook.model.AddressBook;
+import com.example.AddressBook.repository.AddressBookRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+class ContactBatchServiceTest {
+
+    private static final Long OWNER_ID = 42L;
+
+    private AddressBookRepository addressBookRepository;
+    private ConcurrentMapCache remote;
+    private ContactBatchService contactBatchService;
+
+    @BeforeEach
+    void setUp() {
+        addressBookRepository = mock(AddressBookRepository.class);
+        remote = new ConcurrentMapCache("contacts");
+        TwoLevelCacheManager cacheManager = mock(TwoLevelCacheManager.class);
+        TwoLevelCache cache = new TwoLevelCache("contacts", Caffeine.newBuilder().maximumSize(100).build(), remote, cacheManager);
+        when(cacheManager.getCache("contacts")).thenReturn(cache);
+        contactBatchService = new ContactBatchService(addressBookRepository, cacheManager, 3);
+    }
+
+    // ✅ Test: Cached contacts are not queried, misses are loaded in one query and cached
+    @Test
+    void testGetContactsByIds_LoadsOnlyMisses() {
+        AddressBook cached = new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 0L);
+        AddressBook loaded = new AddressBook(2L, OWNER_ID, "Jane Doe", "jane@example.com", "0987654321", 0L);
+        remote.put(OWNER_ID + ":1", cached);
+        when(addressBookRepository.findByOwnerIdAndIdIn(OWNER_ID, List.of(2L, 9L))).thenReturn(List.of(loaded));
+
+        BatchGetResultDTO result = contactBatchService.getContactsByIds(OWNER_ID, List.of(2L, 1L, 9L, 2L));
+
+        assertEquals(List.of(loaded, cached), result.getContacts());  // ✅ request order, duplicate dropped
+        assertEquals(List.of(9L), result.getNotFound());
+        assertEquals(loaded, remote.get(OWNER_ID + ":2").get());
+        verify(addressBookRepository, times(1)).findByOwnerIdAndIdIn(anyLong(), anyCollection());
+    }
+
+    // ✅ Test: A fully cached batch never reaches the database
+    @Test
+    void testGetContactsByIds_AllCached() {
+        AddressBook cached = new AddressBook(1L, OWNER_ID, "John Doe", "john@example.com", "1234567890", 0L);
+        remote.put(OWNER_ID + ":1", cached);
+
+        BatchGetResultDTO result = contactBatchService.getContactsByIds(OWNER_ID, List.of(1L));
+
+        assertEquals(List.of(cached), result.getContacts());
+        verifyNoInteractions(addressBookRepository);
+    }
+
+    // ✅ Test: Batches over the limit are rejected with 400
+    @Test
+    void testGetContactsByIds_TooManyIds() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> contactBatchService.getContactsByIds(OWNER_ID, List.of(1L, 2L, 3L, 4L)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+}
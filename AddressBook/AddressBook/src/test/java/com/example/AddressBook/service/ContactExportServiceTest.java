@@ -0,0 +1,79 @@
+package com.example.AddressBook.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.model.AddressBook;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+class ContactExportServiceTest {
+
+    private static final Long OWNER_ID = 42L;
+
+    @Mock
+    private AddressBookService addressBookService;
+
+    private ContactExportService contactExportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        contactExportService = new ContactExportService(addressBookService, new ObjectMapper());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRows(long count) {
+        doAnswer(invocation -> {
+            Consumer<AddressBook> sink = invocation.getArgument(1);
+            AddressBook contact = new AddressBook();
+            for (long i = 1; i <= count; i++) {
+                contact.setId(i);
+                contact.setName(i == 1 ? "Doe, John" : "Contact " + i);
+                contact.setEmail("contact" + i + "@example.com");
+                contact.setPhone("1234567890");
+                sink.accept(contact);
+            }
+            return null;
+        }).when(addressBookService).streamAllContacts(eq(OWNER_ID), any(Consumer.class));
+    }
+
+    // ✅ Test: CSV export with header and escaping
+    @Test
+    void testExportCsv() throws Exception {
+        stubRows(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = contactExportService.export(OWNER_ID, out, ContactExportService.Format.CSV, false);
+
+        assertEquals(2, rows);
+        assertEquals("id,name,email,phone\n"
+                        + "1,\"Doe, John\",contact1@example.com,1234567890\n"
+                        + "2,Contact 2,contact2@example.com,1234567890\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    // ✅ Test: Gzipped NDJSON export round-trips
+    @Test
+    void testExportNdjsonGzip() throws Exception {
+        stubRows(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        contactExportService.export(OWNER_ID, out, ContactExportService.Format.NDJSON, true);
+
+        String text = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertEquals(3, text.lines().count());
+        assertTrue(text.startsWith("{\"id\":1,"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.AddressBook.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.example.AddressBook.dto.BulkImportResultDTO;
+import com.example.AddressBook.messaging.ContactChangedEvent;
+import com.example.AddressBook.messaging.ContactEventPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+class ContactImportServiceTest {
+
+    private static final Long OWNER_ID = 42L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ContactEventPublisher contactEventPublisher;
+
+    private ContactImportService contactImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        contactImportService = new ContactImportService(jdbcTemplate, transactionManager, contactEventPublisher,
+                new ObjectMapper(), 2);
+    }
+
+    // ✅ Test: CSV rows are chunked, invalid rows reported, one event per chunk
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportCsv_ChunksAndReportsErrors() throws Exception {
+        String csv = "name,email,phone\n"
+                + "John Doe,john@example.com,1234567890\n"
+                + "\"Doe, Jane\",jane@example.com,\n"
+                + "Jane Doe,jane@example.com,0987654321\n"
+                + "Jim Doe,jim@example.com,5555555555\n";
+
+        BulkImportResultDTO result = contactImportService.importCsv(OWNER_ID, new StringReader(csv));
+
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(contactEventPublisher, times(1)).publish(argThat(event ->
+                event.getType() == ContactChangedEvent.ChangeType.IMPORTED && event.getCount() == 2
+                        && OWNER_ID.equals(event.getOwnerId())));
+        verify(contactEventPublisher, times(1)).publish(argThat(event ->
+                event.getType() == ContactChangedEvent.ChangeType.IMPORTED && event.getCount() == 1));
+    }
+
+    // ✅ Test: JSON array import
+    @Test
+    void testImportJson_Success() throws Exception {
+        String json = "[{\"name\":\"John Doe\",\"email\":\"john@example.com\",\"phone\":\"1234567890\"}]";
+
+        BulkImportResultDTO result = contactImportService.importJson(OWNER_ID,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, result.getImported());
+        assertTrue(result.getErrors().isEmpty());
+    }
+
+    // ✅ Test: Only the exact header is skipped, and email is optional as in addContact
+    @Test
+    void testImportCsv_HeaderAndOptionalEmail() throws Exception {
+        String csv = "Nameera Khan,,1234567890\n"
+                + "Jane Doe,jane@example.com,0987654321\n";
+
+        BulkImportResultDTO result = contactImportService.importCsv(OWNER_ID, new StringReader(csv));
+
+        assertEquals(2, result.getImported());
+        assertEquals(0, result.getRejected());
+    }
+
+    // ✅ Test: Non-object and mistyped elements are row errors; the elements after them are still imported
+    @Test
+    void testImportJson_BadElements() throws Exception {
+        String json = "[{\"name\":\"John Doe\",\"phone\":\"1234567890\"}, 42,"
+                + " {\"name\":{\"first\":\"Jim\"},\"email\":\"jim@example.com\",\"phone\":\"555\"},"
+                + " {\"name\":\"Jane Doe\",\"phone\":\"0987654321\"}]";
+
+        BulkImportResultDTO result = contactImportService.importJson(OWNER_ID,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertEquals(List.of(2, 3), result.getErrors().stream().map(BulkImportResultDTO.RowError::getRow).toList());
+    }
+
+    // ✅ Test: Truncated JSON stops the import but still reports what was committed
+    @Test
+    void testImportJson_Truncated() throws Exception {
+        String json = "[{\"name\":\"John Doe\",\"phone\":\"1234567890\"},"
+                + " {\"name\":\"Jane Doe\",\"phone\":\"0987654321\"}, {\"name\":\"Ji";
+
+        BulkImportResultDTO result = contactImportService.importJson(OWNER_ID,
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getRejected());
+    }
+
+    // ✅ Test: Quoted CSV fields
+    @Test
+    void testParseCsvLine_Quoted() {
+        assertEquals(List.of("Doe, Jane", "jane@example.com", "say \"hi\""),
+                ContactImportService.parseCsvLine("\"Doe, Jane\",jane@example.com,\"say \"\"hi\"\"\""));
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.AddressBook.service;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.Mockito.*;
 
 import jakarta.mail.internet.MimeMessage;
@@ -17,6 +16,9 @@ class EmailServiceTest {
     @Mock
     private JavaMailSender javaMailSender; // ✅ Mock JavaMailSender
 
+    @Mock
+    private MailDispatcher mailDispatcher; // ✅ Mock async dispatcher
+
     @InjectMocks
     private EmailService emailService; // ✅ Inject mocks
 
@@ -30,30 +32,39 @@ class EmailServiceTest {
         // ✅ Arrange
         MimeMessage mockMessage = mock(MimeMessage.class);
         when(javaMailSender.createMimeMessage()).thenReturn(mockMessage);
+        when(mailDispatcher.enqueue(eq(mockMessage), anyString())).thenReturn(true);
 
         // ✅ Act
         emailService.sendWelcomeEmail("jagrati@example.com");
 
         // ✅ Assert
-        verify(javaMailSender, times(1)).send(mockMessage); // ✅ Ensure email is sent
+        verify(mailDispatcher, times(1)).enqueue(eq(mockMessage), anyString()); // ✅ Ensure email is queued
+        verify(javaMailSender, never()).send(any(MimeMessage.class)); // ✅ No SMTP on the caller's thread
     }
     //throws test
-    // ✅ Test: Send Welcome Email - Failure
+    // ✅ Test: Send Welcome Email - Queue Full
     @Test
     void testSendWelcomeEmail_Failure() {
         MimeMessage mockMessage = mock(MimeMessage.class);
         when(javaMailSender.createMimeMessage()).thenReturn(mockMessage);
+        when(mailDispatcher.enqueue(eq(mockMessage), anyString())).thenReturn(false);
 
-        doThrow(new RuntimeException("Mail server error")).when(javaMailSender).send(any(MimeMessage.class));
+        // ✅ A full queue is handled by the dispatcher (dead-lettered), never surfaced to the caller
+        assertDoesNotThrow(() -> emailService.sendWelcomeEmail("jagrati@example.com"));
 
-        // ✅ Now expecting exception since it's not caught inside sendWelcomeEmail()
-        RuntimeException thrown = assertThrows(RuntimeException.class,
-                () -> emailService.sendWelcomeEmail("jagrati@example.com"));
+        verify(javaMailSender, times(1)).createMimeMessage();
+        verify(mailDispatcher, times(1)).enqueue(eq(mockMessage), anyString());
+    }
 
-        assertEquals("Mail server error", thrown.getMessage()); // ✅ Ensure correct exception message
+    @Test
+    void testSendPasswordResetEmail_Queued() {
+        MimeMessage mockMessage = mock(MimeMessage.class);
+        when(javaMailSender.createMimeMessage()).thenReturn(mockMessage);
+        when(mailDispatcher.enqueue(eq(mockMessage), anyString())).thenReturn(true);
 
-        verify(javaMailSender, times(1)).createMimeMessage();
-        verify(javaMailSender, times(1)).send(mockMessage);
+        emailService.sendPasswordResetEmail("jagrati@example.com", "token-123");
+
+        verify(mailDispatcher, times(1)).enqueue(eq(mockMessage), anyString());
     }
 
 
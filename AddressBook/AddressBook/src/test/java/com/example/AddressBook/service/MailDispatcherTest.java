@@ -0,0 +1,124 @@
+package com.example.AddressBook.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.Map;
+
+class MailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);  // ✅ In-process SMTP
+
+    private MailDispatcher mailDispatcher;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (mailDispatcher != null) {
+            mailDispatcher.stop();
+        }
+    }
+
+    private MailDispatcher startDispatcher(JavaMailSender sender, int maxAttempts) {
+        return startDispatcher(sender, maxAttempts, Duration.ofMillis(10));
+    }
+
+    private MailDispatcher startDispatcher(JavaMailSender sender, int maxAttempts, Duration initialBackoff) {
+        mailDispatcher = new MailDispatcher(sender, 100, 2, 10, maxAttempts, initialBackoff, 10, new SimpleMeterRegistry());
+        mailDispatcher.start();
+        return mailDispatcher;
+    }
+
+    private static MimeMessage message(JavaMailSender sender, String to) throws Exception {
+        MimeMessage message = sender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setFrom("noreply@addressbook.local");
+        helper.setTo(to);
+        helper.setSubject("Welcome to AddressBook!");
+        helper.setText("Hello", true);
+        return message;
+    }
+
+    // ✅ Test: Queued mail is delivered in batches to a real SMTP server
+    @Test
+    void testEnqueue_DeliversToSmtp() throws Exception {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+        startDispatcher(sender, 3);
+
+        for (int i = 0; i < 25; i++) {
+            assertTrue(mailDispatcher.enqueue(message(sender, "user" + i + "@example.com"), "welcome " + i));
+        }
+
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 25));
+        assertTrue(mailDispatcher.getDeadLetters().isEmpty());
+    }
+
+    // ✅ Test: A transient failure is retried
+    @Test
+    void testDeliver_RetriesFailedMessage() throws Exception {
+        JavaMailSender sender = mock(JavaMailSender.class);
+        MimeMessage message = mock(MimeMessage.class);
+        doThrow(new MailSendException(Map.of(message, new RuntimeException("421 try again"))))
+                .doNothing()
+                .when(sender).send(any(MimeMessage[].class));
+        startDispatcher(sender, 3);
+
+        mailDispatcher.enqueue(message, "welcome");
+
+        verify(sender, timeout(5_000).times(2)).send(any(MimeMessage[].class));
+        assertTrue(mailDispatcher.getDeadLetters().isEmpty());
+    }
+
+    // ✅ Test: Permanent failure ends up in the dead-letter store
+    @Test
+    void testDeliver_DeadLettersAfterMaxAttempts() throws Exception {
+        JavaMailSender sender = mock(JavaMailSender.class);
+        MimeMessage message = mock(MimeMessage.class);
+        doThrow(new MailSendException("Mail server connection failed")).when(sender).send(any(MimeMessage[].class));
+        startDispatcher(sender, 2);
+
+        mailDispatcher.enqueue(message, "welcome");
+
+        verify(sender, timeout(5_000).times(2)).send(any(MimeMessage[].class));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (mailDispatcher.getDeadLetters().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, mailDispatcher.getDeadLetters().size());
+        assertEquals(2, mailDispatcher.getDeadLetters().get(0).attempts());
+    }
+
+    // ✅ Test: Mail waiting for a retry is dead-lettered on shutdown, not lost
+    @Test
+    void testStop_DeadLettersWaitingRetries() throws Exception {
+        JavaMailSender sender = mock(JavaMailSender.class);
+        MimeMessage message = mock(MimeMessage.class);
+        doThrow(new MailSendException("Mail server connection failed")).when(sender).send(any(MimeMessage[].class));
+        MailDispatcher dispatcher = startDispatcher(sender, 3, Duration.ofHours(1));
+
+        dispatcher.enqueue(message, "welcome");
+        verify(sender, timeout(5_000).times(1)).send(any(MimeMessage[].class));
+        dispatcher.stop();
+        mailDispatcher = null;
+
+        assertEquals(1, dispatcher.getDeadLetters().size());
+        MailDispatcher.DeadLetter letter = dispatcher.getDeadLetters().get(0);
+        assertEquals(message, letter.message());
+        assertEquals(1, letter.attempts());
+    }
+}